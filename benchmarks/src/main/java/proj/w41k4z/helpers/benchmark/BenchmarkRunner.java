@@ -0,0 +1,68 @@
+package proj.w41k4z.helpers.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The {@code BenchmarkRunner} class runs all the helpers benchmarks with the GC
+ * profiler (allocation rate) and writes the results as JSON, by default in a
+ * new timestamped file of the {@code results} directory (such as
+ * {@code results/20261017-154400.json}), so they can be diffed with the
+ * committed {@code results/baseline.json}.
+ * <p>
+ * The usual JMH command line options are accepted and take precedence, e.g.
+ * {@code java -jar target/benchmarks.jar -f 1 -wi 2 -i 3 -rff results/1.2.2.json}.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * The directory of the default results files.
+     */
+    public static final String DEFAULT_RESULT_DIRECTORY = "results";
+
+    private static final DateTimeFormatter RESULT_FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss'.json'");
+
+    /**
+     * Runs the benchmarks.
+     * 
+     * @param args the JMH command line options.
+     * @throws RunnerException             if a benchmark fails.
+     * @throws CommandLineOptionException if the options are not valid.
+     * @throws IOException                if the help cannot be printed.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + "\\..*");
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_DIRECTORY + "/" + LocalDateTime.now().format(RESULT_FILE_NAME));
+        }
+        Runner runner = new Runner(options.build());
+        if (commandLine.shouldList()) {
+            runner.list();
+        } else if (commandLine.shouldListWithParams()) {
+            runner.listWithParams(commandLine);
+        } else {
+            runner.run();
+        }
+    }
+}
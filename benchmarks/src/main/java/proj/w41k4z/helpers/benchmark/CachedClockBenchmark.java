@@ -0,0 +1,80 @@
+package proj.w41k4z.helpers.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import proj.w41k4z.helpers.CachedClock;
+import proj.w41k4z.helpers.DateHelper;
+
+/**
+ * Benchmarks of the current time reads, through the cached clock or with a new
+ * temporal object per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch" })
+public class CachedClockBenchmark {
+
+    private CachedClock clock;
+
+    /**
+     * Starts the default clock.
+     */
+    @Setup
+    public void setup() {
+        this.clock = CachedClock.getDefault();
+    }
+
+    /**
+     * Creates a new date per call.
+     *
+     * @return the current date.
+     */
+    @Benchmark
+    public java.sql.Date getCurrentDate() {
+        return DateHelper.getCurrentDate();
+    }
+
+    /**
+     * Reads the shared current day of the default clock.
+     *
+     * @return the current day.
+     */
+    @Benchmark
+    public java.sql.Date getCurrentDay() {
+        return DateHelper.getCurrentDay();
+    }
+
+    /**
+     * Creates a new timestamp per call.
+     *
+     * @return the current timestamp.
+     */
+    @Benchmark
+    public java.sql.Timestamp newTimestamp() {
+        return new java.sql.Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * Reads the shared current timestamp of the default clock.
+     *
+     * @return the current timestamp.
+     */
+    @Benchmark
+    public java.sql.Timestamp currentTimestamp() {
+        return this.clock.currentTimestamp();
+    }
+}
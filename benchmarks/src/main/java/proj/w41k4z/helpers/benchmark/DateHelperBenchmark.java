@@ -0,0 +1,94 @@
+package proj.w41k4z.helpers.benchmark;
+
+import java.lang.reflect.Field;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import proj.w41k4z.helpers.DateHelper;
+import proj.w41k4z.helpers.TemporalMatcher;
+import proj.w41k4z.helpers.annotation.TemporalPattern;
+
+/**
+ * Benchmarks of the {@code DateHelper} parsing, with a single
+ * {@code @TemporalPattern} pattern or with several ones where the parsed value
+ * only matches the last.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch" })
+public class DateHelperBenchmark {
+
+    @TemporalPattern({ "yyyy-MM-dd" })
+    private java.sql.Date single;
+
+    @TemporalPattern({ "dd/MM/yyyy", "MM.dd.yyyy", "dd MMM yyyy", "yyyy-MM-dd" })
+    private java.sql.Date multiple;
+
+    /**
+     * The number of patterns of the parsed field.
+     */
+    @Param({ "1", "4" })
+    public int patternCount;
+
+    private String value;
+    private String[] patterns;
+    private TemporalMatcher matcher;
+
+    /**
+     * Prepares the patterns of the parsed field.
+     * 
+     * @throws Exception if the patterns cannot be read.
+     */
+    @Setup
+    public void setup() throws Exception {
+        Field field = DateHelperBenchmark.class.getDeclaredField(this.patternCount == 1 ? "single" : "multiple");
+        this.patterns = DateHelper.getSupportedPatterns(field);
+        this.matcher = TemporalMatcher.of(field);
+        this.value = "2023-10-17";
+    }
+
+    /**
+     * Parses with each pattern in turn until one matches.
+     * 
+     * @return the parsed date.
+     * @throws Exception if no pattern matches.
+     */
+    @Benchmark
+    public java.util.Date formatEachPattern() throws Exception {
+        for (int i = 0; i < this.patterns.length; i++) {
+            try {
+                return DateHelper.format(java.sql.Date.class, this.value, this.patterns[i]);
+            } catch (ParseException e) {
+                if (i == this.patterns.length - 1) {
+                    throw e;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses with the compiled pattern matcher of the field.
+     * 
+     * @return the parsed date.
+     */
+    @Benchmark
+    public java.util.Date matchPatterns() {
+        return this.matcher.parse(java.sql.Date.class, this.value);
+    }
+}
@@ -0,0 +1,157 @@
+package proj.w41k4z.helpers.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import proj.w41k4z.helpers.FileHelper;
+
+/**
+ * Benchmarks of the {@code FileHelper} tree operations on a generated tree of
+ * {@code directories} directories of {@code filesPerDirectory} files each,
+ * nested by 3 levels.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch" })
+public class FileHelperBenchmark {
+
+    /**
+     * A generated tree, kept for the whole run.
+     */
+    @State(Scope.Benchmark)
+    public static class Tree {
+
+        /**
+         * The number of directories of the tree.
+         */
+        @Param({ "100" })
+        public int directories;
+
+        /**
+         * The number of files of each directory.
+         */
+        @Param({ "20" })
+        public int filesPerDirectory;
+
+        Path root;
+
+        /**
+         * Generates the tree.
+         * 
+         * @throws IOException if the tree cannot be created.
+         */
+        @Setup(Level.Trial)
+        public void create() throws IOException {
+            this.root = generate(this.directories, this.filesPerDirectory);
+        }
+
+        /**
+         * Deletes the tree.
+         */
+        @TearDown(Level.Trial)
+        public void delete() {
+            FileHelper.deleteTree(this.root);
+        }
+    }
+
+    /**
+     * A generated tree, created again before each deletion.
+     */
+    @State(Scope.Thread)
+    public static class DisposableTree {
+
+        /**
+         * The number of directories of the tree.
+         */
+        @Param({ "100" })
+        public int directories;
+
+        /**
+         * The number of files of each directory.
+         */
+        @Param({ "20" })
+        public int filesPerDirectory;
+
+        Path root;
+
+        /**
+         * Generates the tree.
+         * 
+         * @throws IOException if the tree cannot be created.
+         */
+        @Setup(Level.Invocation)
+        public void create() throws IOException {
+            this.root = generate(this.directories, this.filesPerDirectory);
+        }
+    }
+
+    /**
+     * Lists all the files of the tree.
+     * 
+     * @param tree the generated tree.
+     * @return the files.
+     */
+    @Benchmark
+    public File[] getSubFiles(Tree tree) {
+        return FileHelper.getSubFiles(tree.root.toFile());
+    }
+
+    /**
+     * Counts all the files of the tree through the lazy traversal.
+     * 
+     * @param tree the generated tree.
+     * @return the number of files.
+     * @throws IOException if the tree cannot be read.
+     */
+    @Benchmark
+    public long streamSubFiles(Tree tree) throws IOException {
+        try (Stream<Path> files = FileHelper.streamSubFiles(tree.root)) {
+            return files.count();
+        }
+    }
+
+    /**
+     * Deletes the whole tree.
+     * 
+     * @param tree the generated tree.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = 1)
+    @Measurement(iterations = 20, batchSize = 1)
+    public void deleteFile(DisposableTree tree) {
+        FileHelper.deleteFile(tree.root.toFile());
+    }
+
+    private static Path generate(int directories, int filesPerDirectory) throws IOException {
+        Path root = Files.createTempDirectory("helpers-benchmark");
+        for (int i = 0; i < directories; i++) {
+            Path directory = Files.createDirectories(root.resolve("a" + (i % 4)).resolve("b" + (i % 16))
+                    .resolve("c" + i));
+            for (int j = 0; j < filesPerDirectory; j++) {
+                Files.createFile(directory.resolve("file" + j + (j % 2 == 0 ? ".txt" : ".java")));
+            }
+        }
+        return root;
+    }
+}
@@ -0,0 +1,133 @@
+package proj.w41k4z.helpers.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import proj.w41k4z.helpers.annotation.TemporalPattern;
+import proj.w41k4z.helpers.java.JavaClass;
+
+/**
+ * Benchmarks of the {@code JavaClass} field accessors, for scalar, array and
+ * temporal fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch" })
+public class JavaClassBenchmark {
+
+    private Entity entity;
+    private Field amount;
+    private Field amounts;
+    private Field day;
+    private String[] amountValues;
+
+    /**
+     * Prepares the target object and its fields.
+     * 
+     * @throws NoSuchFieldException if a field is missing.
+     */
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        this.entity = new Entity();
+        this.amount = Entity.class.getDeclaredField("amount");
+        this.amounts = Entity.class.getDeclaredField("amounts");
+        this.day = Entity.class.getDeclaredField("day");
+        this.amountValues = new String[] { "1", "22", "333", "4444", "55555", "666666", "7777777", "88888888" };
+    }
+
+    /**
+     * Sets a scalar field from a string.
+     * 
+     * @return the target object.
+     * @throws Exception if the field cannot be set.
+     */
+    @Benchmark
+    public Entity setScalarField() throws Exception {
+        JavaClass.setObjectFieldValue(this.entity, "123456", this.amount);
+        return this.entity;
+    }
+
+    /**
+     * Sets an array field from a string array.
+     * 
+     * @return the target object.
+     * @throws Exception if the field cannot be set.
+     */
+    @Benchmark
+    public Entity setArrayField() throws Exception {
+        JavaClass.setObjectFieldValue(this.entity, this.amountValues, this.amounts);
+        return this.entity;
+    }
+
+    /**
+     * Sets a {@code @TemporalPattern} field from a string.
+     * 
+     * @return the target object.
+     * @throws Exception if the field cannot be set.
+     */
+    @Benchmark
+    public Entity setTemporalField() throws Exception {
+        JavaClass.setObjectFieldValue(this.entity, "2023-10-17", this.day);
+        return this.entity;
+    }
+
+    /**
+     * Gets a scalar field.
+     * 
+     * @return the field value.
+     * @throws Exception if the field cannot be read.
+     */
+    @Benchmark
+    public Object getScalarField() throws Exception {
+        return JavaClass.getObjectFieldValue(this.entity, this.amount);
+    }
+
+    /**
+     * The bound entity.
+     */
+    public static class Entity {
+
+        private Integer amount;
+        private Integer[] amounts;
+        @TemporalPattern({ "dd/MM/yyyy", "yyyy-MM-dd" })
+        private java.sql.Date day;
+
+        public Integer getAmount() {
+            return this.amount;
+        }
+
+        public void setAmount(Integer amount) {
+            this.amount = amount;
+        }
+
+        public Integer[] getAmounts() {
+            return this.amounts;
+        }
+
+        public void setAmounts(Integer[] amounts) {
+            this.amounts = amounts;
+        }
+
+        public java.sql.Date getDay() {
+            return this.day;
+        }
+
+        public void setDay(java.sql.Date day) {
+            this.day = day;
+        }
+    }
+}
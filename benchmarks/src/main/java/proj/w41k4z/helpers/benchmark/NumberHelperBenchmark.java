@@ -0,0 +1,96 @@
+package proj.w41k4z.helpers.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import proj.w41k4z.helpers.NumberHelper;
+
+/**
+ * Benchmarks of the {@code NumberHelper} currency formatting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch" })
+public class NumberHelperBenchmark {
+
+    private static final int COLUMN_SIZE = 1024;
+
+    private double amount;
+    private BigDecimal decimalAmount;
+    private long cents;
+    private double[] column;
+    private StringBuilder buffer;
+
+    /**
+     * Prepares the formatted amounts.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        this.amount = 1234567.891;
+        this.decimalAmount = new BigDecimal("1234567.891");
+        this.cents = 123456789L;
+        this.column = new double[COLUMN_SIZE];
+        for (int i = 0; i < COLUMN_SIZE; i++) {
+            this.column[i] = random.nextDouble() * 10_000_000;
+        }
+        this.buffer = new StringBuilder(COLUMN_SIZE * 16);
+    }
+
+    /**
+     * Formats a double.
+     * 
+     * @return the currency format.
+     */
+    @Benchmark
+    public String toCurrency() {
+        return NumberHelper.toCurrency(this.amount);
+    }
+
+    /**
+     * Formats a big decimal.
+     * 
+     * @return the currency format.
+     */
+    @Benchmark
+    public String toCurrencyBigDecimal() {
+        return NumberHelper.toCurrency(this.decimalAmount);
+    }
+
+    /**
+     * Formats an amount of cents into a reused buffer.
+     * 
+     * @return the buffer.
+     */
+    @Benchmark
+    public StringBuilder appendCurrencyCents() {
+        this.buffer.setLength(0);
+        return NumberHelper.appendCurrencyCents(this.buffer, this.cents);
+    }
+
+    /**
+     * Formats a whole column into a reused buffer.
+     * 
+     * @return the buffer.
+     */
+    @Benchmark
+    public StringBuilder appendCurrencies() {
+        this.buffer.setLength(0);
+        return NumberHelper.appendCurrencies(this.buffer, this.column, ';');
+    }
+}
@@ -0,0 +1,313 @@
+package proj.w41k4z.helpers.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import proj.w41k4z.helpers.NamingStrategy;
+import proj.w41k4z.helpers.annotation.GenerateBinder;
+import proj.w41k4z.helpers.annotation.TemporalPattern;
+import proj.w41k4z.helpers.java.FieldBinder;
+
+/**
+ * The {@code BinderProcessor} annotation processor generates a
+ * {@link FieldBinder} for each class annotated with {@link GenerateBinder} or
+ * having {@link TemporalPattern} fields. The generated binder (named after the class, {@code User_Binder} for
+ * {@code User}) calls the public getters and setters of the fields of the class
+ * and of its superclasses directly, following the java naming convention as
+ * the reflective accessors do. The fields whose type can not be named from the
+ * package of the class (a private nested type for example) are left to
+ * reflection.
+ * <p>
+ * The generated binders are listed in the
+ * {@code META-INF/services/proj.w41k4z.helpers.java.FieldBinder} file of the
+ * class output, so {@code proj.w41k4z.helpers.java.JavaClass} finds them at
+ * runtime.
+ */
+public class BinderProcessor extends AbstractProcessor {
+
+    private static final String SERVICE_FILE = "META-INF/services/" + FieldBinder.class.getName();
+    private static final String BINDER_SUFFIX = "_Binder";
+
+    private final Set<String> binders = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(GenerateBinder.class.getName(), TemporalPattern.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateBinder.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                this.error("@GenerateBinder only applies to classes", element);
+            } else if (!isAccessible((TypeElement) element)) {
+                this.error("@GenerateBinder classes must be accessible from their package", element);
+            } else {
+                types.add((TypeElement) element);
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(TemporalPattern.class)) {
+            Element owner = element.getEnclosingElement();
+            // The classes which can not be bound from their package are left to reflection
+            if (element.getKind() == ElementKind.FIELD && owner.getKind() == ElementKind.CLASS
+                    && isAccessible((TypeElement) owner)) {
+                types.add((TypeElement) owner);
+            }
+        }
+        for (TypeElement type : types) {
+            try {
+                this.generate(type);
+            } catch (IOException e) {
+                this.error("Cannot generate the binder: " + e.getMessage(), type);
+            }
+        }
+        if (roundEnv.processingOver() && !this.binders.isEmpty()) {
+            try {
+                this.writeServiceFile();
+            } catch (IOException e) {
+                this.error("Cannot write " + SERVICE_FILE + ": " + e.getMessage(), null);
+            }
+        }
+        // TemporalPattern is also read at runtime, it is not claimed
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String binderName = (packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1))
+                .replace('.', '_') + BINDER_SUFFIX;
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter
+                .methodsIn(this.processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC)) {
+                methods.add(method);
+            }
+        }
+
+        StringBuilder setters = new StringBuilder();
+        StringBuilder getters = new StringBuilder();
+        for (VariableElement field : this.getFields(type)) {
+            String name = field.getSimpleName().toString();
+            TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(field.asType());
+            if (!this.isAccessible(erasure, packageElement)) {
+                // The binder could not name the type, the field is left to reflection
+                continue;
+            }
+            String fieldType = erasure.toString();
+            ExecutableElement setter = this.findMethod(methods, NamingStrategy.setterName(name), erasure);
+            if (setter != null) {
+                setters.append("            case \"").append(name).append("\": {\n")
+                        .append("                if (type != ").append(fieldType).append(".class) {\n")
+                        .append("                    return false;\n")
+                        .append("                }\n")
+                        .append("                ").append(fieldType).append(" converted = (").append(fieldType)
+                        .append(") value;\n")
+                        .append("                try {\n")
+                        .append("                    object.").append(setter.getSimpleName()).append("(converted);\n")
+                        .append("                } catch (java.lang.Throwable e) {\n")
+                        .append("                    throw new java.lang.reflect.InvocationTargetException(e);\n")
+                        .append("                }\n")
+                        .append("                return true;\n")
+                        .append("            }\n");
+            }
+            ExecutableElement getter = this.findMethod(methods, NamingStrategy.getterName(name), null);
+            if (getter != null) {
+                getters.append("            case \"").append(name).append("\":\n")
+                        .append("                try {\n")
+                        .append("                    return object.").append(getter.getSimpleName()).append("();\n")
+                        .append("                } catch (java.lang.Throwable e) {\n")
+                        .append("                    throw new java.lang.reflect.InvocationTargetException(e);\n")
+                        .append("                }\n");
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(BinderProcessor.class.getName())
+                .append("\")\n")
+                .append("@java.lang.SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n")
+                .append("public final class ").append(binderName).append(" implements ")
+                .append(FieldBinder.class.getName()).append('<').append(typeName).append("> {\n\n")
+                .append("    @java.lang.Override\n")
+                .append("    public java.lang.Class<").append(typeName).append("> getType() {\n")
+                .append("        return ").append(typeName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @java.lang.Override\n")
+                .append("    public boolean set(").append(typeName)
+                .append(" object, java.lang.String field, java.lang.Class<?> type,\n")
+                .append("            java.lang.Object value) throws java.lang.reflect.InvocationTargetException {\n")
+                .append("        switch (field) {\n")
+                .append(setters)
+                .append("            default:\n")
+                .append("                return false;\n")
+                .append("        }\n")
+                .append("    }\n\n")
+                .append("    @java.lang.Override\n")
+                .append("    public java.lang.Object get(").append(typeName).append(" object, java.lang.String field)\n")
+                .append("            throws java.lang.reflect.InvocationTargetException {\n")
+                .append("        switch (field) {\n")
+                .append(getters)
+                .append("            default:\n")
+                .append("                return UNBOUND;\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+        this.binders.add(qualifiedName);
+    }
+
+    /*
+     * The method of the given name taking the given (erased) parameter type, or
+     * no parameter if it is null.
+     */
+    private ExecutableElement findMethod(List<ExecutableElement> methods, String name, TypeMirror parameterType) {
+        for (ExecutableElement method : methods) {
+            List<? extends VariableElement> parameters = method.getParameters();
+            if (!method.getSimpleName().contentEquals(name) || parameters.size() != (parameterType == null ? 0 : 1)) {
+                continue;
+            }
+            if (parameterType == null || this.processingEnv.getTypeUtils().isSameType(parameterType,
+                    this.processingEnv.getTypeUtils().erasure(parameters.get(0).asType()))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * The instance fields of the class and its superclasses, a field hiding a
+     * superclass field of the same name taking its place.
+     */
+    private Iterable<VariableElement> getFields(TypeElement type) {
+        Map<String, VariableElement> fields = new LinkedHashMap<>();
+        for (TypeElement current = type; current != null; current = this.getSuperclass(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    fields.putIfAbsent(field.getSimpleName().toString(), field);
+                }
+            }
+        }
+        return fields.values();
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.NONE ? null
+                : (TypeElement) this.processingEnv.getTypeUtils().asElement(superclass);
+    }
+
+    /*
+     * Keeps the binders listed by the previous compilations whose classes still
+     * exist (an incremental compilation only processes the changed classes).
+     */
+    private void writeServiceFile() throws IOException {
+        try {
+            FileObject existing = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    SERVICE_FILE);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                    String binder = line.trim();
+                    if (!binder.isEmpty() && !binder.startsWith("#")
+                            && this.processingEnv.getElementUtils().getTypeElement(binder) != null) {
+                        this.binders.add(binder);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // No previous service file
+        }
+        FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                SERVICE_FILE);
+        try (Writer writer = file.openWriter()) {
+            for (String binder : this.binders) {
+                writer.write(binder);
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.TOP_LEVEL) {
+            return true;
+        }
+        return type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC)
+                && isAccessible((TypeElement) type.getEnclosingElement());
+    }
+
+    /*
+     * True if the (erased) type can be named from the given package: the type
+     * and all its enclosing types are public or in that package, and none of
+     * them is private.
+     */
+    private boolean isAccessible(TypeMirror type, PackageElement packageElement) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return this.isAccessible(((ArrayType) type).getComponentType(), packageElement);
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return type.getKind().isPrimitive();
+        }
+        for (Element element = ((DeclaredType) type).asElement(); element instanceof TypeElement; element = element
+                .getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!modifiers.contains(Modifier.PUBLIC)
+                    && !this.processingEnv.getElementUtils().getPackageOf(element).equals(packageElement))) {
+                return false;
+            }
+            NestingKind nesting = ((TypeElement) element).getNestingKind();
+            if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void error(String message, Element element) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
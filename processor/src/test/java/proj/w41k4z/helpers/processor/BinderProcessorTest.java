@@ -0,0 +1,106 @@
+package proj.w41k4z.helpers.processor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinderProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void leavesFieldsOfPrivateNestedTypesToReflection() throws IOException {
+        Path source = this.write("demo/User.java",
+                "package demo;\n"
+                        + "@proj.w41k4z.helpers.annotation.GenerateBinder\n"
+                        + "public class User {\n"
+                        + "    private enum Status { ACTIVE }\n"
+                        + "    private String name;\n"
+                        + "    private Status status;\n"
+                        + "    public String getName() { return this.name; }\n"
+                        + "    public void setName(String name) { this.name = name; }\n"
+                        + "    public Status getStatus() { return this.status; }\n"
+                        + "    public void setStatus(Status status) { this.status = status; }\n"
+                        + "}\n");
+
+        this.compile(source);
+
+        String binder = Files.readString(this.directory.resolve("generated/demo/User_Binder.java"));
+        assertTrue(binder.contains("setName"), binder);
+        assertFalse(binder.contains("Status"), binder);
+    }
+
+    @Test
+    void generatesBindersForTemporalPatternFields() throws IOException {
+        Path source = this.write("demo/Event.java",
+                "package demo;\n"
+                        + "public class Event {\n"
+                        + "    private enum Kind { PUBLIC }\n"
+                        + "    @proj.w41k4z.helpers.annotation.TemporalPattern(\"dd/MM/yyyy\")\n"
+                        + "    private java.sql.Date date;\n"
+                        + "    private Kind kind;\n"
+                        + "    public java.sql.Date getDate() { return this.date; }\n"
+                        + "    public void setDate(java.sql.Date date) { this.date = date; }\n"
+                        + "    public Kind getKind() { return this.kind; }\n"
+                        + "    public void setKind(Kind kind) { this.kind = kind; }\n"
+                        + "}\n");
+
+        this.compile(source);
+
+        String binder = Files.readString(this.directory.resolve("generated/demo/Event_Binder.java"));
+        assertTrue(binder.contains("setDate"), binder);
+        assertFalse(binder.contains("Kind"), binder);
+        assertTrue(Files.exists(this.directory.resolve("classes/demo/Event_Binder.class")));
+        String services = Files.readString(
+                this.directory.resolve("classes/META-INF/services/proj.w41k4z.helpers.java.FieldBinder"));
+        assertTrue(services.contains("demo.Event_Binder"), services);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = this.directory.resolve("src").resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    /*
+     * Compiles the fixture with the processor, failing on any compilation
+     * error (including the ones of the generated sources).
+     */
+    private void compile(Path source) throws IOException {
+        Path classes = Files.createDirectories(this.directory.resolve("classes"));
+        Path generated = Files.createDirectories(this.directory.resolve("generated"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+                    List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString(), "-s",
+                            generated.toString()),
+                    null, files.getJavaFileObjects(source));
+            task.setProcessors(List.of(new BinderProcessor()));
+            boolean compiled = task.call();
+            StringBuilder errors = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    errors.append(diagnostic.getMessage(Locale.ROOT)).append('\n');
+                }
+            }
+            assertTrue(compiled, errors.toString());
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package proj.w41k4z.helpers;
+
+import java.time.Clock;
+import java.util.TimeZone;
+
+/**
+ * The {@code CachedClock} class is a clock of a given precision whose current
+ * time is cached, so reading it costs neither a system call nor an allocation.
+ * <p>
+ * The second and day precision {@link #system(Precision) system clocks} are
+ * refreshed once per second by a single shared daemon thread, started on the
+ * first use of one of them. The millisecond precision system clock, which
+ * could not be refreshed in the background without waking at each
+ * millisecond, and the clocks built on another {@link java.time.Clock} (a
+ * fixed or an offset clock in the tests) read their source on each call
+ * instead, and refresh their cached time when it changes.
+ * <p>
+ * The temporal objects returned by a clock are shared until the current time
+ * changes and can not be modified: their setters throw an
+ * {@code UnsupportedOperationException}.
+ *
+ * @see DateHelper#getCurrentDay()
+ */
+public final class CachedClock {
+
+    /**
+     * The precision of a cached clock, the current time being truncated to it.
+     */
+    public enum Precision {
+        /**
+         * The current time to the millisecond.
+         */
+        MILLISECOND,
+
+        /**
+         * The current time truncated to the second.
+         */
+        SECOND,
+
+        /**
+         * The start of the current day (in the default time zone).
+         */
+        DAY
+    }
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final CachedClock[] SYSTEM_CLOCKS = new CachedClock[Precision.values().length];
+    private static volatile boolean tickerStarted;
+    private static volatile CachedClock defaultClock;
+
+    static {
+        for (Precision precision : Precision.values()) {
+            SYSTEM_CLOCKS[precision.ordinal()] = new CachedClock(precision, Clock.systemUTC(),
+                    precision != Precision.MILLISECOND);
+        }
+    }
+
+    private final Precision precision;
+    private final Clock source;
+    private final boolean ticking;
+    private volatile Tick tick;
+
+    private CachedClock(Precision precision, Clock source, boolean ticking) {
+        if (precision == null || source == null) {
+            throw new IllegalArgumentException("The precision and the source clock are required");
+        }
+        this.precision = precision;
+        this.source = source;
+        this.ticking = ticking;
+        this.tick = this.next(null, source.millis());
+    }
+
+    /**
+     * Returns the shared system clock of the given precision. The first call for
+     * the second or the day precision starts the daemon thread refreshing them.
+     *
+     * @param precision the precision of the clock.
+     * @return the system clock.
+     */
+    public static CachedClock system(Precision precision) {
+        CachedClock clock = SYSTEM_CLOCKS[precision.ordinal()];
+        if (clock.ticking && !tickerStarted) {
+            startTicker();
+        }
+        return clock;
+    }
+
+    /**
+     * Returns a clock of the given precision reading the given source clock on
+     * each call, such as a fixed clock in the tests.
+     *
+     * @param precision the precision of the clock.
+     * @param source    the source clock.
+     * @return the clock.
+     */
+    public static CachedClock of(Precision precision, Clock source) {
+        return new CachedClock(precision, source, false);
+    }
+
+    /**
+     * Returns the default clock, which is the second precision system clock
+     * unless replaced.
+     *
+     * @return the default clock.
+     * @see #setDefault(CachedClock)
+     */
+    public static CachedClock getDefault() {
+        CachedClock clock = defaultClock;
+        return clock == null ? system(Precision.SECOND) : clock;
+    }
+
+    /**
+     * Replaces the default clock, for example by a test clock.
+     *
+     * @param clock the new default clock or null to restore the second precision
+     *              system clock.
+     */
+    public static void setDefault(CachedClock clock) {
+        defaultClock = clock;
+    }
+
+    /**
+     * Returns the precision of this clock.
+     *
+     * @return the precision.
+     */
+    public Precision getPrecision() {
+        return this.precision;
+    }
+
+    /**
+     * Returns the current time, truncated to the precision of this clock.
+     *
+     * @return the current time in milliseconds from the epoch.
+     */
+    public long millis() {
+        return this.current().millis;
+    }
+
+    /**
+     * Returns the current time in seconds, truncated to the precision of this
+     * clock.
+     *
+     * @return the current time in seconds from the epoch.
+     */
+    public long epochSecond() {
+        return Math.floorDiv(this.current().millis, 1000L);
+    }
+
+    /**
+     * Returns the current day in the default time zone.
+     *
+     * @return the current day in days from the epoch.
+     */
+    public long epochDay() {
+        return this.current().epochDay;
+    }
+
+    /**
+     * Returns the current date, shared for the whole day.
+     *
+     * @return the current (immutable) date.
+     */
+    public java.sql.Date currentDate() {
+        return this.current().date;
+    }
+
+    /**
+     * Returns the current time of the day, truncated to the precision of this
+     * clock.
+     *
+     * @return the current (immutable) time.
+     */
+    public java.sql.Time currentTime() {
+        Tick current = this.current();
+        java.sql.Time time = current.time;
+        if (time == null) {
+            time = new SharedTime(DateHelper.toTemporal(java.sql.Time.class, current.millis).getTime()
+                    + Math.floorMod(current.millis, 1000L));
+            current.time = time;
+        }
+        return time;
+    }
+
+    /**
+     * Returns the current timestamp, truncated to the precision of this clock.
+     *
+     * @return the current (immutable) timestamp.
+     */
+    public java.sql.Timestamp currentTimestamp() {
+        Tick current = this.current();
+        java.sql.Timestamp timestamp = current.timestamp;
+        if (timestamp == null) {
+            timestamp = new SharedTimestamp(current.millis);
+            current.timestamp = timestamp;
+        }
+        return timestamp;
+    }
+
+    /*
+     * Keeps the current tick (and its shared temporal objects) until the source
+     * clock leaves its period. Concurrent readers may both build the next tick,
+     * each returning the one matching its own reading.
+     */
+    private Tick current() {
+        if (this.ticking) {
+            return this.tick;
+        }
+        long now = this.source.millis();
+        Tick current = this.tick;
+        if (now < current.millis || now >= current.until) {
+            current = this.next(current, now);
+            this.tick = current;
+        }
+        return current;
+    }
+
+    /*
+     * Builds the tick of the given time, keeping the previous date (and its time
+     * zone computations) for the whole day.
+     */
+    private Tick next(Tick previous, long now) {
+        long epochDay;
+        java.sql.Date date;
+        long dayEnd;
+        if (previous != null && now >= previous.date.getTime() && now < previous.dayEnd) {
+            epochDay = previous.epochDay;
+            date = previous.date;
+            dayEnd = previous.dayEnd;
+        } else {
+            TimeZone zone = TimeZone.getDefault();
+            epochDay = Math.floorDiv(now + zone.getOffset(now), MILLIS_PER_DAY);
+            date = new SharedDate(DateHelper.toTemporal(java.sql.Date.class, now).getTime());
+            // 36 hours after a midnight is always in the next day, whatever the
+            // daylight saving time
+            dayEnd = DateHelper.toTemporal(java.sql.Date.class, date.getTime() + MILLIS_PER_DAY * 3 / 2).getTime();
+        }
+        long millis;
+        long until;
+        switch (this.precision) {
+            case MILLISECOND:
+                millis = now;
+                until = now + 1;
+                break;
+            case SECOND:
+                millis = now - Math.floorMod(now, 1000L);
+                until = millis + 1000L;
+                break;
+            default:
+                millis = date.getTime();
+                until = dayEnd;
+        }
+        return new Tick(millis, until, epochDay, date, dayEnd);
+    }
+
+    /*
+     * Refreshes the ticking system clocks before starting the thread, so their
+     * first reads are not stale.
+     */
+    private static synchronized void startTicker() {
+        if (tickerStarted) {
+            return;
+        }
+        refreshTickingClocks(System.currentTimeMillis());
+        Thread ticker = new Thread(CachedClock::tick, "cached-clock-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+        tickerStarted = true;
+    }
+
+    /*
+     * Wakes up at the start of each second.
+     */
+    private static void tick() {
+        while (true) {
+            long now = System.currentTimeMillis();
+            refreshTickingClocks(now);
+            try {
+                Thread.sleep(1000L - Math.floorMod(now, 1000L));
+            } catch (InterruptedException e) {
+                // The system clocks would stop: keep refreshing them
+            }
+        }
+    }
+
+    private static void refreshTickingClocks(long now) {
+        for (CachedClock clock : SYSTEM_CLOCKS) {
+            if (clock.ticking) {
+                clock.tick = clock.next(clock.tick, now);
+            }
+        }
+    }
+
+    /*
+     * The current time of the clock for the period [millis, until), and the
+     * current day for [date, dayEnd).
+     */
+    private static final class Tick {
+
+        private final long millis;
+        private final long until;
+        private final long epochDay;
+        private final java.sql.Date date;
+        private final long dayEnd;
+        private volatile java.sql.Time time;
+        private volatile java.sql.Timestamp timestamp;
+
+        private Tick(long millis, long until, long epochDay, java.sql.Date date, long dayEnd) {
+            this.millis = millis;
+            this.until = until;
+            this.epochDay = epochDay;
+            this.date = date;
+            this.dayEnd = dayEnd;
+        }
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("The temporal objects of a cached clock can not be modified");
+    }
+
+    /*
+     * The shared temporal objects, serialized as their regular java.sql type.
+     */
+    @SuppressWarnings("deprecation")
+    private static final class SharedDate extends java.sql.Date {
+
+        private static final long serialVersionUID = 1L;
+
+        private SharedDate(long date) {
+            super(date);
+        }
+
+        @Override
+        public void setTime(long date) {
+            throw immutable();
+        }
+
+        @Override
+        public void setYear(int year) {
+            throw immutable();
+        }
+
+        @Override
+        public void setMonth(int month) {
+            throw immutable();
+        }
+
+        @Override
+        public void setDate(int date) {
+            throw immutable();
+        }
+
+        private Object writeReplace() {
+            return new java.sql.Date(this.getTime());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static final class SharedTime extends java.sql.Time {
+
+        private static final long serialVersionUID = 1L;
+
+        private SharedTime(long time) {
+            super(time);
+        }
+
+        @Override
+        public void setTime(long time) {
+            throw immutable();
+        }
+
+        @Override
+        public void setHours(int hours) {
+            throw immutable();
+        }
+
+        @Override
+        public void setMinutes(int minutes) {
+            throw immutable();
+        }
+
+        @Override
+        public void setSeconds(int seconds) {
+            throw immutable();
+        }
+
+        private Object writeReplace() {
+            return new java.sql.Time(this.getTime());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static final class SharedTimestamp extends java.sql.Timestamp {
+
+        private static final long serialVersionUID = 1L;
+
+        private SharedTimestamp(long time) {
+            super(time);
+        }
+
+        @Override
+        public void setTime(long time) {
+            throw immutable();
+        }
+
+        @Override
+        public void setNanos(int nanos) {
+            throw immutable();
+        }
+
+        @Override
+        public void setYear(int year) {
+            throw immutable();
+        }
+
+        @Override
+        public void setMonth(int month) {
+            throw immutable();
+        }
+
+        @Override
+        public void setDate(int date) {
+            throw immutable();
+        }
+
+        @Override
+        public void setHours(int hours) {
+            throw immutable();
+        }
+
+        @Override
+        public void setMinutes(int minutes) {
+            throw immutable();
+        }
+
+        @Override
+        public void setSeconds(int seconds) {
+            throw immutable();
+        }
+
+        private Object writeReplace() {
+            return new java.sql.Timestamp(this.getTime());
+        }
+    }
+}
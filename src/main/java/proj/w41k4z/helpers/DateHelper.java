@@ -2,10 +2,14 @@ package proj.w41k4z.helpers;
 
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Calendar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import proj.w41k4z.helpers.annotation.TemporalPattern;
+import proj.w41k4z.helpers.metrics.HelperMetrics;
 
 /**
  * The {@code DateHelper} class is used to provide helper methods for temporal
@@ -15,6 +19,9 @@ import proj.w41k4z.helpers.annotation.TemporalPattern;
  */
 public class DateHelper {
 
+    private static final ConcurrentMap<String, ThreadLocal<java.text.SimpleDateFormat>> FORMATS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Calendar> CALENDAR = ThreadLocal.withInitial(Calendar::getInstance);
+
     /**
      * Returns the supported temporal patterns for a given temporal element.
      * 
@@ -42,6 +49,8 @@ public class DateHelper {
 
     /**
      * Parse a given string temporal object to the specified pattern.
+     * The parsing formatters are cached per pattern (one instance per thread) and
+     * the temporal object is built directly from the parsed instant.
      * 
      * @param type    the type of the temporal object to format.
      * @param date    the string temporal object.
@@ -50,33 +59,94 @@ public class DateHelper {
      * @throws ParseException            if the given temporal object is not
      *                                   compatible with
      *                                   the given temporal pattern.
-     * @throws InvocationTargetException if the valueOf method throws an exception
+     * @throws InvocationTargetException kept for compatibility, the temporal
+     *                                   object is no longer created reflectively
      */
     public static java.util.Date format(Class<?> type, String date, String pattern)
             throws ParseException, InvocationTargetException {
         // Getting the java.util.Date object from the string temporal object
-        java.text.SimpleDateFormat sourceFormat = new java.text.SimpleDateFormat(pattern);
-        java.util.Date utilDate = sourceFormat.parse(date);
-
-        // Formatting the java.util.Date object to the specified temporal pattern
-        String validPattern = getValidTemporalFormat(type);
-        java.text.SimpleDateFormat targetFormat = new java.text.SimpleDateFormat(validPattern);
-        String formattedDateExpression = targetFormat.format(utilDate);
+        java.util.Date utilDate;
         try {
-            Method valueOf = type.getMethod("valueOf", String.class);
-            return (java.util.Date) type.cast(valueOf.invoke(type, formattedDateExpression));
-        } catch (NoSuchMethodException e) {
-            throw new IllegalArgumentException("The given type is not a date type");
-        } catch (IllegalAccessException e) {
-            /*
-             * This exception will never be thrown because
-             * an IllegalArgumentException will be thrown if
-             * the type is not a date type (Specifically, the method valueOf
-             * is only accessible for java.sql.Date, java.sql.Time and
-             * java.sql.Timestamp)
-             */
-            return null;
+            utilDate = getFormat(pattern).parse(date);
+        } catch (ParseException e) {
+            HelperMetrics.recordParse(pattern, false);
+            throw e;
+        }
+        HelperMetrics.recordParse(pattern, true);
+        return toTemporal(type, utilDate.getTime());
+    }
+
+    /*
+     * Parses the given string temporal object without throwing, returns null if
+     * it is not compatible with the given pattern.
+     */
+    static java.util.Date parse(String date, String pattern) {
+        return getFormat(pattern).parse(date, new ParsePosition(0));
+    }
+
+    /**
+     * Formats a given temporal object with the specified pattern. The
+     * formatters are cached per pattern (one instance per thread).
+     * 
+     * @param date    the temporal object.
+     * @param pattern the temporal pattern for formatting.
+     * @return the string temporal object.
+     */
+    public static String toString(java.util.Date date, String pattern) {
+        return getFormat(pattern).format(date);
+    }
+
+    /**
+     * Builds a temporal object the same way its valueOf(String) method would
+     * from the valid temporal format: java.sql.Date is truncated to the day,
+     * java.sql.Time to the time of the day and java.sql.Timestamp to the second.
+     * 
+     * @param type        the type of the temporal object to create.
+     * @param epochMillis the instant in milliseconds from the epoch.
+     * @return a new temporal object.
+     * @throws IllegalArgumentException if the type is not a java.sql temporal
+     *                                  type.
+     */
+    public static java.util.Date toTemporal(Class<?> type, long epochMillis) {
+        if (type == java.sql.Timestamp.class) {
+            return new java.sql.Timestamp(epochMillis - Math.floorMod(epochMillis, 1000L));
+        }
+        if (type == java.sql.Date.class) {
+            Calendar calendar = getCalendar(epochMillis);
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+            return new java.sql.Date(calendar.getTimeInMillis());
+        }
+        if (type == java.sql.Time.class) {
+            Calendar calendar = getCalendar(epochMillis);
+            calendar.set(1970, Calendar.JANUARY, 1);
+            calendar.set(Calendar.MILLISECOND, 0);
+            return new java.sql.Time(calendar.getTimeInMillis());
+        }
+        // Throws the unsupported type error for the non temporal types
+        getValidTemporalFormat(type);
+        throw new IllegalArgumentException("The given type is not a date type");
+    }
+
+    private static java.text.SimpleDateFormat getFormat(String pattern) {
+        ThreadLocal<java.text.SimpleDateFormat> format = FORMATS.get(pattern);
+        HelperMetrics.recordCacheAccess("DateFormat", format != null);
+        if (format == null) {
+            // Validates the pattern once, before sharing it
+            java.text.SimpleDateFormat prototype = new java.text.SimpleDateFormat(pattern);
+            format = FORMATS.computeIfAbsent(pattern,
+                    key -> ThreadLocal.withInitial(() -> (java.text.SimpleDateFormat) prototype.clone()));
         }
+        return format.get();
+    }
+
+    private static Calendar getCalendar(long epochMillis) {
+        Calendar calendar = CALENDAR.get();
+        calendar.clear();
+        calendar.setTimeInMillis(epochMillis);
+        return calendar;
     }
 
     /**
@@ -103,9 +173,22 @@ public class DateHelper {
     /**
      * Returns the current date
      * 
-     * @return the current date
+     * @return a new date holding the current instant
+     * @see #getCurrentDay()
      */
     public static java.sql.Date getCurrentDate() {
         return new java.sql.Date(System.currentTimeMillis());
     }
+
+    /**
+     * Returns the current day, read from the default cached clock. Unlike
+     * {@link #getCurrentDate()}, the returned date is truncated to the start of
+     * the day, shared for the whole day and can not be modified.
+     * 
+     * @return the current day
+     * @see CachedClock#currentDate()
+     */
+    public static java.sql.Date getCurrentDay() {
+        return CachedClock.getDefault().currentDate();
+    }
 }
@@ -0,0 +1,77 @@
+package proj.w41k4z.helpers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The {@code DeletionResult} class is the report of a recursive deletion made
+ * with {@code proj.w41k4z.helpers.FileHelper#deleteTree}.
+ */
+public final class DeletionResult {
+
+    private final long deletedFiles;
+    private final long deletedDirectories;
+    private final Map<Path, IOException> failures;
+    private final Duration elapsed;
+
+    DeletionResult(long deletedFiles, long deletedDirectories, Map<Path, IOException> failures, Duration elapsed) {
+        this.deletedFiles = deletedFiles;
+        this.deletedDirectories = deletedDirectories;
+        this.failures = Collections.unmodifiableMap(failures);
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns the number of deleted files (symbolic links included).
+     *
+     * @return the number of deleted files.
+     */
+    public long getDeletedFiles() {
+        return this.deletedFiles;
+    }
+
+    /**
+     * Returns the number of deleted directories.
+     *
+     * @return the number of deleted directories.
+     */
+    public long getDeletedDirectories() {
+        return this.deletedDirectories;
+    }
+
+    /**
+     * Returns the entries which could not be deleted, with the reason.
+     *
+     * @return the failures, by path.
+     */
+    public Map<Path, IOException> getFailures() {
+        return this.failures;
+    }
+
+    /**
+     * Returns the time the deletion took.
+     *
+     * @return the elapsed time.
+     */
+    public Duration getElapsed() {
+        return this.elapsed;
+    }
+
+    /**
+     * Checks if every entry has been deleted.
+     *
+     * @return true if there is no failure, false otherwise.
+     */
+    public boolean isSuccessful() {
+        return this.failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "DeletionResult[files=" + this.deletedFiles + ", directories=" + this.deletedDirectories
+                + ", failures=" + this.failures.size() + ", elapsed=" + this.elapsed + "]";
+    }
+}
@@ -0,0 +1,437 @@
+package proj.w41k4z.helpers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code DirectorySnapshot} class keeps the listing of a directory tree in
+ * memory, indexed by file extension, so repeated listings do not hit the disk.
+ * The snapshot is kept current by a background thread following the
+ * {@code WatchService} events of every directory of the tree. When the events
+ * are lost (overflow) or not supported by the file system, the changes are
+ * found by checking the modification times of the directories.
+ * <p>
+ * While a snapshot is open, {@link FileHelper#getSubFiles(File)} answers from
+ * it for the same root path. The listed files are the regular files (and the
+ * symbolic links to regular files) of the tree, sorted by path; symbolic links
+ * to directories are not followed.
+ */
+public final class DirectorySnapshot implements AutoCloseable {
+
+    /**
+     * The default interval between two checks of the directory modification
+     * times.
+     */
+    public static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofSeconds(10);
+
+    private static final ConcurrentMap<Path, DirectorySnapshot> OPENED = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final long checkIntervalNanos;
+    private final WatchService watchService;
+    private final Map<Path, Directory> directories = new HashMap<>();
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final Thread watcher;
+    private volatile State state;
+    private volatile boolean closed;
+
+    private DirectorySnapshot(Path root, Duration checkInterval) throws IOException {
+        this.root = root;
+        this.checkIntervalNanos = checkInterval.toNanos();
+        WatchService service;
+        try {
+            service = root.getFileSystem().newWatchService();
+        } catch (UnsupportedOperationException e) {
+            // Modification time checks only
+            service = null;
+        }
+        this.watchService = service;
+        try {
+            synchronized (this) {
+                this.scan(root);
+                this.publish();
+            }
+        } catch (IOException | RuntimeException e) {
+            this.closeWatchService();
+            throw e;
+        }
+        this.watcher = new Thread(this::watch, "directory-snapshot-" + root.getFileName());
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * Takes a snapshot of a directory tree, checking the directory modification
+     * times every {@link #DEFAULT_CHECK_INTERVAL}.
+     *
+     * @param root the root directory.
+     * @return the snapshot, to be closed when no longer used.
+     * @throws IOException if the tree cannot be read.
+     */
+    public static DirectorySnapshot open(Path root) throws IOException {
+        return open(root, DEFAULT_CHECK_INTERVAL);
+    }
+
+    /**
+     * Takes a snapshot of a directory tree.
+     *
+     * @param root          the root directory.
+     * @param checkInterval the interval between two checks of the directory
+     *                      modification times.
+     * @return the snapshot, to be closed when no longer used.
+     * @throws IOException if the tree cannot be read.
+     */
+    public static DirectorySnapshot open(Path root, Duration checkInterval) throws IOException {
+        if (!Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+            throw new NotDirectoryException(root.toString());
+        }
+        if (checkInterval.isNegative() || checkInterval.isZero()) {
+            throw new IllegalArgumentException("The check interval must be positive");
+        }
+        DirectorySnapshot snapshot = new DirectorySnapshot(root, checkInterval);
+        OPENED.put(root, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Returns the opened snapshot of the given root.
+     *
+     * @param root the root directory, as given when the snapshot was opened.
+     * @return the snapshot, null if there is none.
+     */
+    static DirectorySnapshot of(Path root) {
+        return OPENED.isEmpty() ? null : OPENED.get(root);
+    }
+
+    /**
+     * Returns the root directory.
+     *
+     * @return the root.
+     */
+    public Path getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Returns all the files of the tree.
+     *
+     * @return the unmodifiable list of the files, sorted by path.
+     */
+    public List<Path> getFiles() {
+        return this.state.files;
+    }
+
+    /**
+     * Returns the files of the tree having the given extension.
+     *
+     * @param extension the extension (as returned by
+     *                  {@link FileHelper#getFileExtension(Path)}).
+     * @return the unmodifiable list of the files, sorted by path.
+     */
+    public List<Path> getFiles(String extension) {
+        return this.state.byExtension.getOrDefault(extension, Collections.emptyList());
+    }
+
+    /**
+     * Returns all the files of the tree, as {@link FileHelper#getSubFiles(File)}
+     * does.
+     *
+     * @return the files, sorted by path.
+     */
+    public File[] getSubFiles() {
+        return this.state.subFiles.clone();
+    }
+
+    /**
+     * Rescans the whole tree now.
+     *
+     * @throws IOException if the tree cannot be read.
+     */
+    public synchronized void refresh() throws IOException {
+        this.scan(this.root);
+        this.publish();
+    }
+
+    /**
+     * Stops following the changes of the tree.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        OPENED.remove(this.root, this);
+        this.closeWatchService();
+        this.watcher.interrupt();
+    }
+
+    private void watch() {
+        long lastCheck = System.nanoTime();
+        while (!this.closed) {
+            try {
+                WatchKey key;
+                if (this.watchService == null) {
+                    TimeUnit.NANOSECONDS.sleep(this.checkIntervalNanos);
+                    key = null;
+                } else {
+                    key = this.watchService.poll(this.checkIntervalNanos, TimeUnit.NANOSECONDS);
+                }
+                synchronized (this) {
+                    boolean check = System.nanoTime() - lastCheck >= this.checkIntervalNanos;
+                    Set<Path> changed = new LinkedHashSet<>();
+                    for (; key != null; key = this.watchService.poll()) {
+                        check |= this.collect(key, changed);
+                    }
+                    if (check) {
+                        this.collectModified(changed);
+                        lastCheck = System.nanoTime();
+                    }
+                    if (!changed.isEmpty()) {
+                        for (Path directory : changed) {
+                            this.relist(directory);
+                        }
+                        this.publish();
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (IOException e) {
+                // The tree changed while being read: checked again on the next round
+            }
+        }
+    }
+
+    /*
+     * Collects the directory of the key if its content changed. Returns true if
+     * events were lost.
+     */
+    private boolean collect(WatchKey key, Set<Path> changed) {
+        Path directory = this.keys.get(key);
+        if (directory == null) {
+            // Key of a removed directory
+            key.cancel();
+            return false;
+        }
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (event.kind() != StandardWatchEventKinds.ENTRY_MODIFY) {
+                changed.add(directory);
+            }
+        }
+        if (!key.reset()) {
+            // Deleted directory: its parent is relisted
+            changed.add(directory);
+        }
+        return overflow;
+    }
+
+    private void collectModified(Set<Path> changed) throws IOException {
+        for (Map.Entry<Path, Directory> entry : this.directories.entrySet()) {
+            try {
+                FileTime modified = Files.readAttributes(entry.getKey(), BasicFileAttributes.class,
+                        LinkOption.NOFOLLOW_LINKS).lastModifiedTime();
+                if (!modified.equals(entry.getValue().modified)) {
+                    changed.add(entry.getKey());
+                }
+            } catch (NoSuchFileException e) {
+                changed.add(entry.getKey());
+            }
+        }
+    }
+
+    /*
+     * Reads the content of a directory again, scanning its new subdirectories
+     * and dropping the removed ones.
+     */
+    private void relist(Path directory) throws IOException {
+        Directory previous = this.directories.get(directory);
+        if (previous == null) {
+            return;
+        }
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            this.remove(directory);
+            if (directory.equals(this.root)) {
+                this.close();
+            } else if (directory.getParent() != null) {
+                this.relist(directory.getParent());
+            }
+            return;
+        }
+        Directory current = this.list(directory, previous.key);
+        for (Path subdirectory : previous.subdirectories) {
+            if (!current.subdirectories.contains(subdirectory)) {
+                this.remove(subdirectory);
+            }
+        }
+        this.directories.put(directory, current);
+        for (Path subdirectory : current.subdirectories) {
+            if (!this.directories.containsKey(subdirectory)) {
+                this.scan(subdirectory);
+            }
+        }
+    }
+
+    private void scan(Path directory) throws IOException {
+        this.remove(directory);
+        WatchKey key = null;
+        if (this.watchService != null) {
+            try {
+                // Registered before the listing so no change is missed
+                key = directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                this.keys.put(key, directory);
+            } catch (NoSuchFileException e) {
+                return;
+            } catch (IOException e) {
+                // No more watches available: followed by modification time checks
+            }
+        }
+        Directory entry;
+        try {
+            entry = this.list(directory, key);
+        } catch (NoSuchFileException e) {
+            if (key != null) {
+                key.cancel();
+                this.keys.remove(key);
+            }
+            return;
+        }
+        this.directories.put(directory, entry);
+        for (Path subdirectory : entry.subdirectories) {
+            this.scan(subdirectory);
+        }
+    }
+
+    private Directory list(Path directory, WatchKey key) throws IOException {
+        FileTime modified = Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                .lastModifiedTime();
+        List<Path> files = new ArrayList<>();
+        List<Path> subdirectories = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    subdirectories.add(entry);
+                } else if (attributes.isRegularFile() || (attributes.isSymbolicLink() && Files.isRegularFile(entry))) {
+                    files.add(entry);
+                }
+            }
+        }
+        Collections.sort(files);
+        Collections.sort(subdirectories);
+        return new Directory(modified, files, subdirectories, key);
+    }
+
+    private void remove(Path directory) {
+        Directory entry = this.directories.remove(directory);
+        if (entry == null) {
+            return;
+        }
+        if (entry.key != null) {
+            entry.key.cancel();
+            this.keys.remove(entry.key);
+        }
+        for (Path subdirectory : entry.subdirectories) {
+            this.remove(subdirectory);
+        }
+    }
+
+    /*
+     * Builds the immutable view read by the listing methods.
+     */
+    private void publish() {
+        List<Path> files = new ArrayList<>();
+        this.collectFiles(this.root, files);
+        Collections.sort(files);
+        Map<String, List<Path>> byExtension = new HashMap<>();
+        for (Path file : files) {
+            byExtension.computeIfAbsent(FileHelper.getFileExtension(file), extension -> new ArrayList<>()).add(file);
+        }
+        byExtension.replaceAll((extension, paths) -> Collections.unmodifiableList(paths));
+        File[] subFiles = new File[files.size()];
+        for (int i = 0; i < subFiles.length; i++) {
+            subFiles[i] = files.get(i).toFile();
+        }
+        this.state = new State(Collections.unmodifiableList(files), byExtension, subFiles);
+    }
+
+    private void collectFiles(Path directory, List<Path> files) {
+        Directory entry = this.directories.get(directory);
+        if (entry != null) {
+            files.addAll(entry.files);
+            for (Path subdirectory : entry.subdirectories) {
+                this.collectFiles(subdirectory, files);
+            }
+        }
+    }
+
+    private void closeWatchService() {
+        if (this.watchService != null) {
+            try {
+                this.watchService.close();
+            } catch (IOException e) {
+                // Nothing more to release
+            }
+        }
+    }
+
+    /*
+     * The content of a directory when it was last read.
+     */
+    private static final class Directory {
+
+        private final FileTime modified;
+        private final List<Path> files;
+        private final List<Path> subdirectories;
+        private final WatchKey key;
+
+        private Directory(FileTime modified, List<Path> files, List<Path> subdirectories, WatchKey key) {
+            this.modified = modified;
+            this.files = files;
+            this.subdirectories = subdirectories;
+            this.key = key;
+        }
+    }
+
+    private static final class State {
+
+        private final List<Path> files;
+        private final Map<String, List<Path>> byExtension;
+        private final File[] subFiles;
+
+        private State(List<Path> files, Map<String, List<Path>> byExtension, File[] subFiles) {
+            this.files = files;
+            this.byExtension = byExtension;
+            this.subFiles = subFiles;
+        }
+    }
+}
@@ -4,13 +4,56 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import proj.w41k4z.helpers.metrics.HelperMetrics;
 
 /**
  * This class is used to help with file operations.
  */
 public class FileHelper {
 
+    /**
+     * The size from which {@link #copyFile(Path, Path, boolean)} copies through
+     * memory-mapped chunks instead of channel transfers.
+     */
+    public static final long MAPPED_COPY_THRESHOLD = 256L * 1024 * 1024;
+
+    private static final long MAPPED_CHUNK_SIZE = 64L * 1024 * 1024;
+
     /**
      * This method is used to create a new file.
      * 
@@ -48,40 +91,310 @@ public class FileHelper {
     }
 
     /**
-     * This method is used to delete a file and all its subfile if directory.
+     * This method is used to truncate a file to the given size. A file smaller
+     * than the size is left unchanged.
+     * 
+     * @param file The file to truncate.
+     * @param size The new size of the file, in bytes.
+     * @throws IOException If an I/O error occurs
+     */
+    public static void truncateFile(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    /**
+     * This method is used to copy a file. The bytes are transferred by the
+     * kernel (no copy through the java heap), files larger than
+     * {@link #MAPPED_COPY_THRESHOLD} being copied through memory-mapped chunks.
+     * Nothing is copied if the source and the target are the same file.
+     * 
+     * @param source  The file to copy.
+     * @param target  The copy.
+     * @param replace True to replace an existing target, false to fail.
+     * @return The number of copied bytes.
+     * @throws IOException If an I/O error occurs or the target exists and must
+     *                     not be replaced.
+     */
+    public static long copyFile(Path source, Path target, boolean replace) throws IOException {
+        if (isSameFile(source, target)) {
+            // Truncating the target would erase the source
+            if (!replace) {
+                throw new FileAlreadyExistsException(target.toString());
+            }
+            return 0;
+        }
+        long start = HelperMetrics.start();
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                        replace ? StandardOpenOption.CREATE : StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            if (size >= MAPPED_COPY_THRESHOLD) {
+                while (position < size) {
+                    MappedByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(MAPPED_CHUNK_SIZE, size - position));
+                    while (chunk.hasRemaining()) {
+                        position += out.write(chunk);
+                    }
+                }
+            } else {
+                while (position < size) {
+                    long transferred = in.transferTo(position, size - position, out);
+                    if (transferred <= 0) {
+                        // The source has been truncated meanwhile
+                        break;
+                    }
+                    position += transferred;
+                }
+            }
+            HelperMetrics.recordFileOperation("copyFile", start, position);
+            return position;
+        }
+    }
+
+    /**
+     * This method is used to move a file or a directory. A move on the same file
+     * system is an atomic rename, otherwise the source is copied then deleted.
+     * Nothing is done if the source and the target are the same file.
+     * 
+     * @param source  The file to move.
+     * @param target  The new location of the file.
+     * @param replace True to replace an existing target, false to fail.
+     * @throws IOException If an I/O error occurs
+     */
+    public static void moveFile(Path source, Path target, boolean replace) throws IOException {
+        if (isSameFile(source, target)) {
+            return;
+        }
+        if (!replace && Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        long start = HelperMetrics.start();
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            HelperMetrics.recordFileOperation("moveFile", start, 1);
+            return;
+        } catch (AtomicMoveNotSupportedException e) {
+            // Another file system
+        }
+        if (Files.isDirectory(source, LinkOption.NOFOLLOW_LINKS)) {
+            copyDirectory(source, target, Runtime.getRuntime().availableProcessors());
+        } else if (Files.isSymbolicLink(source)) {
+            Files.copy(source, target, LinkOption.NOFOLLOW_LINKS, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            copyFile(source, target, true);
+        }
+        DeletionResult deletion = deleteTree(source);
+        if (!deletion.isSuccessful()) {
+            throw deletion.getFailures().values().iterator().next();
+        }
+        HelperMetrics.recordFileOperation("moveFile", start, deletion.getDeletedFiles());
+    }
+
+    /**
+     * This method is used to copy a directory and all its content. The
+     * directories are created while walking the source, the files are copied in
+     * parallel by at most the given number of threads. Symbolic links are copied,
+     * not followed.
+     * 
+     * @param source      The directory to copy.
+     * @param target      The copy (existing files are replaced).
+     * @param parallelism The maximum number of files copied at the same time.
+     * @return The number of copied bytes.
+     * @throws IOException If an I/O error occurs
+     */
+    public static long copyDirectory(Path source, Path target, int parallelism) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        long start = HelperMetrics.start();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        Semaphore slots = new Semaphore(parallelism * 2);
+        LongAdder copied = new LongAdder();
+        List<IOException> failures = new CopyOnWriteArrayList<>();
+        try {
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+                        throws IOException {
+                    Files.createDirectories(target.resolve(source.relativize(directory)));
+                    return failures.isEmpty() ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    Path copy = target.resolve(source.relativize(file));
+                    if (attributes.isSymbolicLink()) {
+                        Files.copy(file, copy, LinkOption.NOFOLLOW_LINKS, StandardCopyOption.REPLACE_EXISTING);
+                        return FileVisitResult.CONTINUE;
+                    }
+                    // Bounds the number of pending copies
+                    slots.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            copied.add(copyFile(file, copy, true));
+                        } catch (IOException e) {
+                            failures.add(e);
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                    return failures.isEmpty() ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+                }
+            });
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!failures.isEmpty()) {
+            IOException failure = failures.get(0);
+            for (int i = 1; i < failures.size(); i++) {
+                failure.addSuppressed(failures.get(i));
+            }
+            throw failure;
+        }
+        HelperMetrics.recordFileOperation("copyDirectory", start, copied.sum());
+        return copied.sum();
+    }
+
+    /**
+     * This method is used to delete a file and all its subfile if directory, one
+     * entry at a time on the calling thread.
      * 
      * @param file The file to delete.
+     * @see #deleteTree(Path, int)
      */
     public static void deleteFile(File file) {
-        if (file.isDirectory()) {
-            File[] children = file.listFiles();
-            for (int i = 0; i < children.length; i++) {
-                deleteFile(children[i]);
+        deleteTree(file.toPath(), 1);
+    }
+
+    /**
+     * This method is used to delete a file and all its subfiles if directory,
+     * using as many threads as available processors.
+     * 
+     * @param root The file to delete.
+     * @return The deletion report.
+     * @see #deleteTree(Path, int)
+     */
+    public static DeletionResult deleteTree(Path root) {
+        return deleteTree(root, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * This method is used to delete a file and all its subfiles if directory. The
+     * subdirectories are deleted in parallel, each directory being deleted after
+     * its content. Symbolic links are deleted, not followed. A failure does not
+     * stop the deletion of the other entries, it is reported in the result.
+     * 
+     * @param root        The file to delete.
+     * @param parallelism The number of threads deleting at the same time (a low
+     *                    value suits network file systems better). With 1, the
+     *                    entries are deleted one at a time on the calling thread.
+     * @return The deletion report.
+     */
+    public static DeletionResult deleteTree(Path root, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        long start = System.nanoTime();
+        DeleteAction action = new DeleteAction(root, new DeleteReport(parallelism == 1));
+        if (parallelism == 1) {
+            action.invoke();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(action);
+            } finally {
+                pool.shutdown();
             }
         }
-        file.delete();
+        DeletionResult result = new DeletionResult(action.report.files.sum(), action.report.directories.sum(),
+                action.report.failures, Duration.ofNanos(System.nanoTime() - start));
+        if (HelperMetrics.isEnabled()) {
+            HelperMetrics.recordFileOperation("deleteTree", start,
+                    result.getDeletedFiles() + result.getDeletedDirectories());
+        }
+        return result;
     }
 
     /**
-     * This method is used to get all the subfiles of a file.
+     * This method is used to get all the subfiles of a file. If a
+     * {@link DirectorySnapshot} of the file is open, the subfiles are taken from
+     * it instead of the disk.
      * 
      * @param file The file to get the subfiles from.
      * @return The subfiles of the file.
+     * @throws UncheckedIOException If a directory cannot be read.
+     * @see #streamSubFiles(Path)
      */
     public static File[] getSubFiles(File file) {
-        ArrayList<File> files = new ArrayList<>();
-        if (file.isFile()) {
-            files.add(file);
-        }
-        if (file.isDirectory()) {
-            File[] children = file.listFiles();
-            for (int i = 0; i < children.length; i++) {
-                for (File grandChildren : getSubFiles(children[i])) {
-                    files.add(grandChildren);
-                }
-            }
+        DirectorySnapshot snapshot = DirectorySnapshot.of(file.toPath());
+        if (snapshot != null) {
+            return snapshot.getSubFiles();
         }
-        return files.toArray(new File[files.size()]);
+        if (!file.exists()) {
+            return new File[0];
+        }
+        long start = HelperMetrics.start();
+        try (Stream<Path> subFiles = streamSubFiles(file.toPath())) {
+            File[] files = subFiles.map(Path::toFile).toArray(File[]::new);
+            HelperMetrics.recordFileOperation("getSubFiles", start, files.length);
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method is used to lazily walk all the subfiles of a file. The
+     * directories are read one entry at a time while the stream is consumed, so
+     * the memory used only depends on the depth of the tree. Symbolic links to
+     * directories are not followed. The returned stream must be closed.
+     * 
+     * @param root The file to get the subfiles from.
+     * @return The stream of the subfiles (the file itself if not a directory).
+     * @throws IOException If the root cannot be read.
+     */
+    public static Stream<Path> streamSubFiles(Path root) throws IOException {
+        return streamSubFiles(root, Integer.MAX_VALUE, path -> true);
+    }
+
+    /**
+     * This method is used to lazily walk the subfiles of a file having one of the
+     * given extensions. The returned stream must be closed.
+     * 
+     * @param root       The file to get the subfiles from.
+     * @param maxDepth   The maximum number of directory levels to visit.
+     * @param extensions The extensions to keep (as returned by
+     *                   {@link #getFileExtension(Path)}).
+     * @return The stream of the matching subfiles.
+     * @throws IOException If the root cannot be read.
+     */
+    public static Stream<Path> streamSubFiles(Path root, int maxDepth, String... extensions) throws IOException {
+        Set<String> accepted = new HashSet<>(Arrays.asList(extensions));
+        return streamSubFiles(root, maxDepth, path -> accepted.contains(getFileExtension(path)));
+    }
+
+    /**
+     * This method is used to lazily walk the subfiles of a file matching the
+     * given filter. The returned stream must be closed.
+     * 
+     * @param root     The file to get the subfiles from.
+     * @param maxDepth The maximum number of directory levels to visit.
+     * @param filter   The filter the subfiles have to match.
+     * @return The stream of the matching subfiles.
+     * @throws IOException If the root cannot be read.
+     */
+    public static Stream<Path> streamSubFiles(Path root, int maxDepth, Predicate<Path> filter) throws IOException {
+        return Files.find(root, maxDepth, (path, attributes) -> (attributes.isRegularFile()
+                || (attributes.isSymbolicLink() && Files.isRegularFile(path))) && filter.test(path));
     }
 
     /**
@@ -91,7 +404,120 @@ public class FileHelper {
      * @return The extension of the file.
      */
     public static String getFileExtension(File file) {
-        String[] splittedName = file.getName().split("\\.");
-        return splittedName[splittedName.length - 1];
+        return getExtension(file.getName());
+    }
+
+    /**
+     * This method is used to get the extension of a file.
+     * 
+     * @param file The file to get the extension from.
+     * @return The extension of the file.
+     */
+    public static String getFileExtension(Path file) {
+        Path name = file.getFileName();
+        return name == null ? "" : getExtension(name.toString());
+    }
+
+    /*
+     * True if the target exists and is the source (same path, hard link or link
+     * to it).
+     */
+    private static boolean isSameFile(Path source, Path target) throws IOException {
+        return Files.exists(target) && Files.isSameFile(source, target);
+    }
+
+    /*
+     * The last dot separated part of the name, trailing dots being ignored.
+     */
+    private static String getExtension(String name) {
+        int end = name.length();
+        while (end > 0 && name.charAt(end - 1) == '.') {
+            end--;
+        }
+        return name.substring(name.lastIndexOf('.', end - 1) + 1, end);
+    }
+
+    /*
+     * The counters shared by all the tasks of a deletion.
+     */
+    private static final class DeleteReport {
+
+        private final boolean sequential;
+        private final LongAdder files = new LongAdder();
+        private final LongAdder directories = new LongAdder();
+        private final Map<Path, IOException> failures = new ConcurrentHashMap<>();
+
+        private DeleteReport(boolean sequential) {
+            this.sequential = sequential;
+        }
+    }
+
+    /*
+     * Deletes an entry, forking a task for each subdirectory (or deleting it
+     * inline when sequential) then deleting the directory itself once all of
+     * them are done.
+     */
+    private static final class DeleteAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path path;
+        private final transient DeleteReport report;
+
+        private DeleteAction(Path path, DeleteReport report) {
+            this.path = path;
+            this.report = report;
+        }
+
+        @Override
+        protected void compute() {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(this.path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                return;
+            } catch (IOException e) {
+                this.report.failures.put(this.path, e);
+                return;
+            }
+            if (!attributes.isDirectory()) {
+                this.delete(this.path, this.report.files);
+                return;
+            }
+            List<DeleteAction> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(this.path)) {
+                for (Path child : children) {
+                    if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                        DeleteAction subdirectory = new DeleteAction(child, this.report);
+                        if (this.report.sequential) {
+                            subdirectory.compute();
+                        } else {
+                            subdirectory.fork();
+                            subdirectories.add(subdirectory);
+                        }
+                    } else {
+                        this.delete(child, this.report.files);
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                this.report.failures.put(this.path,
+                        e instanceof IOException ? (IOException) e : ((DirectoryIteratorException) e).getCause());
+            }
+            for (DeleteAction subdirectory : subdirectories) {
+                subdirectory.join();
+            }
+            this.delete(this.path, this.report.directories);
+        }
+
+        private void delete(Path entry, LongAdder counter) {
+            try {
+                Files.delete(entry);
+                counter.increment();
+            } catch (NoSuchFileException e) {
+                // Already deleted
+            } catch (IOException e) {
+                this.report.failures.put(entry, e);
+            }
+        }
     }
 }
@@ -0,0 +1,179 @@
+package proj.w41k4z.helpers;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code NamingStrategy} enum converts names (properties, columns, keys)
+ * between the camelCase, PascalCase, snake_case and kebab-case conventions.
+ * The words of a name are split on the {@code _}, {@code -}, {@code .} and
+ * space separators and on the case changes ({@code "HTTPServer"} is made of
+ * {@code HTTP} and {@code Server}), whatever its original convention.
+ * <p>
+ * The conversions are cached by name (up to {@link #MAX_CACHED_NAMES} names
+ * per strategy) and can also be written into a caller's buffer without any
+ * allocation. The getter and setter names of the properties are cached the
+ * same way.
+ */
+public enum NamingStrategy {
+
+    /**
+     * {@code firstName}
+     */
+    CAMEL_CASE('\0', false, true),
+
+    /**
+     * {@code FirstName}
+     */
+    PASCAL_CASE('\0', true, true),
+
+    /**
+     * {@code first_name}
+     */
+    SNAKE_CASE('_', false, false),
+
+    /**
+     * {@code first-name}
+     */
+    KEBAB_CASE('-', false, false);
+
+    /**
+     * The maximum number of names cached by each cache, which is emptied when
+     * full.
+     */
+    public static final int MAX_CACHED_NAMES = 4096;
+
+    private static final ConcurrentMap<String, String> GETTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, String> SETTERS = new ConcurrentHashMap<>();
+
+    private final char separator;
+    private final boolean capitalizeFirst;
+    private final boolean capitalizeWords;
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    private NamingStrategy(char separator, boolean capitalizeFirst, boolean capitalizeWords) {
+        this.separator = separator;
+        this.capitalizeFirst = capitalizeFirst;
+        this.capitalizeWords = capitalizeWords;
+    }
+
+    /**
+     * Converts the given name to this naming convention.
+     *
+     * @param name the name to convert, in any convention.
+     * @return the (cached) converted name.
+     */
+    public String apply(String name) {
+        String converted = this.names.get(name);
+        HelperMetrics.recordCacheAccess("NamingStrategy", converted != null);
+        if (converted == null) {
+            converted = this.appendTo(new StringBuilder(name.length() + 4), name).toString();
+            store(this.names, name, converted);
+        }
+        return converted;
+    }
+
+    /**
+     * Appends the given name converted to this naming convention to a buffer.
+     * Nothing is allocated if the buffer is large enough.
+     *
+     * @param buffer the buffer to append the converted name to.
+     * @param name   the name to convert, in any convention.
+     * @return the buffer.
+     */
+    public StringBuilder appendTo(StringBuilder buffer, CharSequence name) {
+        int length = name.length();
+        int word = 0;
+        int i = 0;
+        while (i < length) {
+            if (isSeparator(name.charAt(i))) {
+                i++;
+                continue;
+            }
+            int end = wordEnd(name, i, length);
+            if (word > 0 && this.separator != '\0') {
+                buffer.append(this.separator);
+            }
+            boolean capitalize = this.capitalizeWords && (word > 0 || this.capitalizeFirst);
+            buffer.append(capitalize ? Character.toUpperCase(name.charAt(i)) : Character.toLowerCase(name.charAt(i)));
+            for (int j = i + 1; j < end; j++) {
+                buffer.append(Character.toLowerCase(name.charAt(j)));
+            }
+            word++;
+            i = end;
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the getter name of the given property, following the java naming
+     * convention.
+     *
+     * @param property the property name.
+     * @return the (cached) getter name.
+     */
+    public static String getterName(String property) {
+        String getter = GETTERS.get(property);
+        HelperMetrics.recordCacheAccess("GetterName", getter != null);
+        if (getter == null) {
+            getter = StringHelper.toCamelCase("get", property);
+            store(GETTERS, property, getter);
+        }
+        return getter;
+    }
+
+    /**
+     * Returns the setter name of the given property, following the java naming
+     * convention.
+     *
+     * @param property the property name.
+     * @return the (cached) setter name.
+     */
+    public static String setterName(String property) {
+        String setter = SETTERS.get(property);
+        HelperMetrics.recordCacheAccess("SetterName", setter != null);
+        if (setter == null) {
+            setter = StringHelper.toCamelCase("set", property);
+            store(SETTERS, property, setter);
+        }
+        return setter;
+    }
+
+    private static void store(ConcurrentMap<String, String> cache, String name, String converted) {
+        if (cache.size() >= MAX_CACHED_NAMES) {
+            cache.clear();
+        }
+        cache.put(name, converted);
+    }
+
+    /*
+     * A word ends before a separator or an upper case letter. An upper case run
+     * (an acronym, with its trailing digits) is a word by itself, except for its
+     * last letter when a lower case letter follows it.
+     */
+    private static int wordEnd(CharSequence name, int start, int length) {
+        int i = start + 1;
+        if (Character.isUpperCase(name.charAt(start)) && i < length && Character.isUpperCase(name.charAt(i))) {
+            while (i < length && Character.isUpperCase(name.charAt(i))) {
+                i++;
+            }
+            if (i < length && Character.isLowerCase(name.charAt(i))) {
+                return i - 1;
+            }
+            while (i < length && Character.isDigit(name.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+        while (i < length && !isSeparator(name.charAt(i)) && !Character.isUpperCase(name.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '_' || c == '-' || c == '.' || c == ' ';
+    }
+}
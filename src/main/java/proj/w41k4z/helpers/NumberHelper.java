@@ -1,28 +1,328 @@
 package proj.w41k4z.helpers;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
 /**
  * The {@code NumberHelper} class is used to provide some useful methods for
  * number manipulation.
+ * <p>
+ * The currency format has two decimals separated by a comma and groups the
+ * integer digits by three with a space (e.g. {@code "1 234 567,89"}). The
+ * {@code append} and {@code write} methods produce it directly into the
+ * caller buffer, without intermediate strings.
  */
 public class NumberHelper {
 
+    /*
+     * The longest currency of a long number of cents: sign, 17 integer digits,
+     * 6 group separators, comma and 2 decimals.
+     */
+    private static final int MAX_CENTS_LENGTH = 28;
+
+    /*
+     * Under this many cents, a double times 100 is a long number of cents and its
+     * rounding error stays within a few ulps.
+     */
+    private static final double MAX_FAST_CENTS = 0x1p43;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_CENTS_LENGTH]);
+
     /**
      * Returns the currency format for a given number.
-     * 
+     *
      * @param money the number to be formatted.
      * @return the currency format for a given number.
      */
     public static String toCurrency(Number money) {
+        return appendCurrency(new StringBuilder(MAX_CENTS_LENGTH), money).toString();
+    }
+
+    /**
+     * Appends the currency format of a given number to a string builder.
+     *
+     * @param out   the string builder to append to.
+     * @param money the number to be formatted.
+     * @return the string builder.
+     */
+    public static StringBuilder appendCurrency(StringBuilder out, Number money) {
         if (money == null || money.doubleValue() == 0) {
-            return "0,00";
+            return out.append("0,00");
+        }
+        if (money instanceof BigDecimal) {
+            return appendCurrency(out, (BigDecimal) money);
+        }
+        if (money instanceof Double || money instanceof Float) {
+            return appendCurrency(out, money.doubleValue());
+        }
+        if (money instanceof BigInteger) {
+            return appendCurrency(out, new BigDecimal((BigInteger) money));
+        }
+        // Byte, Short, Integer, Long and the other integral numbers
+        return appendCurrency(out, BigDecimal.valueOf(money.longValue()));
+    }
+
+    /**
+     * Appends the currency format of a given number to a string builder.
+     *
+     * @param out   the string builder to append to.
+     * @param money the number to be formatted.
+     * @return the string builder.
+     */
+    public static StringBuilder appendCurrency(StringBuilder out, double money) {
+        if (money == 0) {
+            return out.append("0,00");
+        }
+        if (Double.isNaN(money) || Double.isInfinite(money)) {
+            return out.append(money);
+        }
+        long cents = toCents(money);
+        if (cents < 0) {
+            // Not representable as a long number of cents
+            return appendLarge(out, money < 0, new BigDecimal(Double.toString(money)));
+        }
+        char[] buffer = BUFFER.get();
+        return out.append(buffer, 0, writeCents(money < 0, cents, buffer, 0));
+    }
+
+    /**
+     * Appends the currency format of a given number to a string builder.
+     *
+     * @param out   the string builder to append to.
+     * @param money the number to be formatted.
+     * @return the string builder.
+     */
+    public static StringBuilder appendCurrency(StringBuilder out, BigDecimal money) {
+        if (money == null || money.doubleValue() == 0) {
+            return out.append("0,00");
+        }
+        BigDecimal scaled = money.setScale(2, RoundingMode.HALF_UP);
+        if (scaled.precision() > 18) {
+            return appendLarge(out, money.signum() < 0, scaled);
+        }
+        char[] buffer = BUFFER.get();
+        return out.append(buffer, 0,
+                writeCents(money.signum() < 0, Math.abs(scaled.unscaledValue().longValue()), buffer, 0));
+    }
+
+    /**
+     * Appends the currency format of a given amount of minor units (cents) to a
+     * string builder.
+     *
+     * @param out   the string builder to append to.
+     * @param cents the amount of cents to be formatted.
+     * @return the string builder.
+     */
+    public static StringBuilder appendCurrencyCents(StringBuilder out, long cents) {
+        if (cents == 0) {
+            return out.append("0,00");
+        }
+        if (cents == Long.MIN_VALUE) {
+            return appendLarge(out, true, BigDecimal.valueOf(cents, 2));
+        }
+        char[] buffer = BUFFER.get();
+        return out.append(buffer, 0, writeCents(cents < 0, Math.abs(cents), buffer, 0));
+    }
+
+    /**
+     * Appends the currency format of a given number to an appendable.
+     *
+     * @param out   the appendable to append to.
+     * @param money the number to be formatted.
+     * @throws IOException if the appendable throws an I/O error.
+     */
+    public static void appendCurrency(Appendable out, double money) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendCurrency((StringBuilder) out, money);
+            return;
+        }
+        long cents = toCents(money);
+        if (money == 0 || cents < 0) {
+            out.append(appendCurrency(new StringBuilder(MAX_CENTS_LENGTH), money));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int length = writeCents(money < 0, cents, buffer, 0);
+        for (int i = 0; i < length; i++) {
+            out.append(buffer[i]);
+        }
+    }
+
+    /**
+     * Appends the currency format of a given amount of minor units (cents) to an
+     * appendable.
+     *
+     * @param out   the appendable to append to.
+     * @param cents the amount of cents to be formatted.
+     * @throws IOException if the appendable throws an I/O error.
+     */
+    public static void appendCurrencyCents(Appendable out, long cents) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendCurrencyCents((StringBuilder) out, cents);
+            return;
+        }
+        if (cents == 0 || cents == Long.MIN_VALUE) {
+            out.append(appendCurrencyCents(new StringBuilder(MAX_CENTS_LENGTH), cents));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        int length = writeCents(cents < 0, Math.abs(cents), buffer, 0);
+        for (int i = 0; i < length; i++) {
+            out.append(buffer[i]);
+        }
+    }
+
+    /**
+     * Writes the currency format of a given number into a char array.
+     *
+     * @param money  the number to be formatted.
+     * @param buffer the char array to write into.
+     * @param offset the index to start writing at.
+     * @return the index following the last written char.
+     * @throws ArrayIndexOutOfBoundsException if the char array is too small.
+     */
+    public static int writeCurrency(double money, char[] buffer, int offset) {
+        long cents = toCents(money);
+        if (money != 0 && cents >= 0) {
+            return writeCents(money < 0, cents, buffer, offset);
+        }
+        StringBuilder formatted = appendCurrency(new StringBuilder(MAX_CENTS_LENGTH), money);
+        formatted.getChars(0, formatted.length(), buffer, offset);
+        return offset + formatted.length();
+    }
+
+    /**
+     * Writes the currency format of a given amount of minor units (cents) into a
+     * char array.
+     *
+     * @param cents  the amount of cents to be formatted.
+     * @param buffer the char array to write into.
+     * @param offset the index to start writing at.
+     * @return the index following the last written char.
+     * @throws ArrayIndexOutOfBoundsException if the char array is too small.
+     */
+    public static int writeCurrencyCents(long cents, char[] buffer, int offset) {
+        if (cents != 0 && cents != Long.MIN_VALUE) {
+            return writeCents(cents < 0, Math.abs(cents), buffer, offset);
+        }
+        StringBuilder formatted = appendCurrencyCents(new StringBuilder(MAX_CENTS_LENGTH), cents);
+        formatted.getChars(0, formatted.length(), buffer, offset);
+        return offset + formatted.length();
+    }
+
+    /**
+     * Appends the currency format of every number of a column to a string
+     * builder, each one followed by the given separator.
+     *
+     * @param out       the string builder to append to.
+     * @param column    the numbers to be formatted.
+     * @param separator the separator to append after each number.
+     * @return the string builder.
+     */
+    public static StringBuilder appendCurrencies(StringBuilder out, double[] column, char separator) {
+        out.ensureCapacity(out.length() + column.length * 16);
+        for (int i = 0; i < column.length; i++) {
+            appendCurrency(out, column[i]).append(separator);
+        }
+        return out;
+    }
+
+    /**
+     * Appends the currency format of every amount of minor units (cents) of a
+     * column to a string builder, each one followed by the given separator.
+     *
+     * @param out       the string builder to append to.
+     * @param column    the amounts of cents to be formatted.
+     * @param separator the separator to append after each amount.
+     * @return the string builder.
+     */
+    public static StringBuilder appendCurrenciesCents(StringBuilder out, long[] column, char separator) {
+        out.ensureCapacity(out.length() + column.length * 16);
+        for (int i = 0; i < column.length; i++) {
+            appendCurrencyCents(out, column[i]).append(separator);
+        }
+        return out;
+    }
+
+    /*
+     * Returns the absolute amount of cents of a double, rounded half up on its
+     * decimal representation (as String.format("%.2f") does), or -1 if it does not
+     * fit the fast path.
+     */
+    private static long toCents(double money) {
+        double cents = Math.abs(money) * 100;
+        if (!(cents < MAX_FAST_CENTS)) {
+            // Too large or not a number
+            return -1;
+        }
+        double floor = Math.floor(cents);
+        double fraction = cents - floor;
+        if (Math.abs(fraction - 0.5) <= 4 * Math.ulp(cents)) {
+            // Too close to the tie: rounding the exact decimal representation
+            return new BigDecimal(Double.toString(Math.abs(money))).setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue().longValue();
+        }
+        return (long) floor + (fraction > 0.5 ? 1 : 0);
+    }
+
+    /*
+     * Writes the currency format of an absolute amount of cents. A group
+     * separator is put in front of every char (sign included) followed by a
+     * multiple of three integer chars.
+     */
+    private static int writeCents(boolean negative, long cents, char[] buffer, int offset) {
+        long units = cents / 100;
+        int digits = 1;
+        for (long rest = units / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int total = digits + (negative ? 1 : 0);
+        int position = offset;
+        int index = 0;
+        if (negative) {
+            if (total % 3 == 0) {
+                buffer[position++] = ' ';
+            }
+            buffer[position++] = '-';
+            index++;
+        }
+        long divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10, index++) {
+            if ((total - index) % 3 == 0) {
+                buffer[position++] = ' ';
+            }
+            buffer[position++] = (char) ('0' + (units / divisor) % 10);
+        }
+        int decimals = (int) (cents % 100);
+        buffer[position++] = ',';
+        buffer[position++] = (char) ('0' + decimals / 10);
+        buffer[position++] = (char) ('0' + decimals % 10);
+        return position;
+    }
+
+    private static StringBuilder appendLarge(StringBuilder out, boolean negative, BigDecimal money) {
+        String digits = money.abs().setScale(2, RoundingMode.HALF_UP).toPlainString();
+        int integers = digits.length() - 3;
+        int total = integers + (negative ? 1 : 0);
+        int index = 0;
+        if (negative) {
+            if (total % 3 == 0) {
+                out.append(' ');
+            }
+            out.append('-');
+            index++;
         }
-        StringBuilder moneyString = new StringBuilder(String.format("%.2f", money).replace(".", ","));
-        int start = moneyString.indexOf(",") != -1 ? moneyString.indexOf(",") - 1 : moneyString.length();
-        for (int i = start, j = 1; i >= 0; i--, j++) {
-            if (j % 3 == 0) {
-                moneyString.insert(i, " ");
+        for (int i = 0; i < integers; i++, index++) {
+            if ((total - index) % 3 == 0) {
+                out.append(' ');
             }
+            out.append(digits.charAt(i));
         }
-        return moneyString.toString();
+        return out.append(',').append(digits, integers + 1, digits.length());
     }
 }
@@ -15,8 +15,11 @@ public class StringHelper {
      * @return the camelcase concatenation of the two strings.
      */
     public static String toCamelCase(String str1, String str2) {
-        StringBuffer S2 = new StringBuffer(str2);
-        S2.setCharAt(0, Character.toUpperCase(S2.charAt(0)));
-        return str1.concat(S2.toString());
+        char first = Character.toUpperCase(str2.charAt(0));
+        char[] chars = new char[str1.length() + str2.length()];
+        str1.getChars(0, str1.length(), chars, 0);
+        str2.getChars(0, str2.length(), chars, str1.length());
+        chars[str1.length()] = first;
+        return new String(chars);
     }
 }
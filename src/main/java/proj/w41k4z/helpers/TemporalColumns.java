@@ -0,0 +1,199 @@
+package proj.w41k4z.helpers;
+
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The {@code TemporalColumns} class parses whole columns of temporal strings
+ * (against the patterns of a {@link TemporalMatcher}, for example the ones of a
+ * {@code proj.w41k4z.helpers.annotation.TemporalPattern} annotation) into
+ * primitive arrays: epoch milliseconds or epoch days (in the default time
+ * zone). No temporal object is kept per value.
+ * <p>
+ * The null, blank and unparsable values are reported in a null bitmap (bit
+ * {@code i % 64} of word {@code i / 64} set for the value {@code i}, see
+ * {@link #newNullBitmap(int)}) instead of throwing, their output value being
+ * 0. Big columns can be split across a fork-join pool.
+ */
+public final class TemporalColumns {
+
+    /**
+     * The minimum number of values of a column for it to be split across a
+     * fork-join pool (a multiple of 64, so each task owns whole bitmap words).
+     */
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private TemporalColumns() {
+    }
+
+    /**
+     * Creates a null bitmap for a column of the given size.
+     *
+     * @param size the number of values of the column.
+     * @return the bitmap.
+     */
+    public static long[] newNullBitmap(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * Checks if a value of a column is null (or invalid).
+     *
+     * @param nulls the null bitmap of the column.
+     * @param index the index of the value.
+     * @return true if null, false otherwise.
+     */
+    public static boolean isNull(long[] nulls, int index) {
+        return (nulls[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Parses a column into epoch milliseconds.
+     *
+     * @param column  the temporal strings.
+     * @param matcher the patterns to parse the strings with.
+     * @param millis  the output array, at least as long as the column.
+     * @param nulls   the output null bitmap, as created by
+     *                {@link #newNullBitmap(int)}.
+     * @return the number of null values.
+     */
+    public static int parseEpochMillis(CharSequence[] column, TemporalMatcher matcher, long[] millis, long[] nulls) {
+        checkOutput(column.length, millis.length, nulls);
+        return new ParseTask(column, matcher, millis, null, nulls, 0, column.length).compute();
+    }
+
+    /**
+     * Parses a column into epoch milliseconds, splitting it across the given pool
+     * if it holds at least {@link #PARALLEL_THRESHOLD} values.
+     *
+     * @param column  the temporal strings.
+     * @param matcher the patterns to parse the strings with.
+     * @param millis  the output array, at least as long as the column.
+     * @param nulls   the output null bitmap, as created by
+     *                {@link #newNullBitmap(int)}.
+     * @param pool    the pool to parse the column with.
+     * @return the number of null values.
+     */
+    public static int parseEpochMillis(CharSequence[] column, TemporalMatcher matcher, long[] millis, long[] nulls,
+            ForkJoinPool pool) {
+        checkOutput(column.length, millis.length, nulls);
+        return pool.invoke(new ParseTask(column, matcher, millis, null, nulls, 0, column.length));
+    }
+
+    /**
+     * Parses a column into epoch days (the local dates in the default time
+     * zone).
+     *
+     * @param column  the temporal strings.
+     * @param matcher the patterns to parse the strings with.
+     * @param days    the output array, at least as long as the column.
+     * @param nulls   the output null bitmap, as created by
+     *                {@link #newNullBitmap(int)}.
+     * @return the number of null values.
+     */
+    public static int parseEpochDays(CharSequence[] column, TemporalMatcher matcher, int[] days, long[] nulls) {
+        checkOutput(column.length, days.length, nulls);
+        return new ParseTask(column, matcher, null, days, nulls, 0, column.length).compute();
+    }
+
+    /**
+     * Parses a column into epoch days (the local dates in the default time zone),
+     * splitting it across the given pool if it holds at least
+     * {@link #PARALLEL_THRESHOLD} values.
+     *
+     * @param column  the temporal strings.
+     * @param matcher the patterns to parse the strings with.
+     * @param days    the output array, at least as long as the column.
+     * @param nulls   the output null bitmap, as created by
+     *                {@link #newNullBitmap(int)}.
+     * @param pool    the pool to parse the column with.
+     * @return the number of null values.
+     */
+    public static int parseEpochDays(CharSequence[] column, TemporalMatcher matcher, int[] days, long[] nulls,
+            ForkJoinPool pool) {
+        checkOutput(column.length, days.length, nulls);
+        return pool.invoke(new ParseTask(column, matcher, null, days, nulls, 0, column.length));
+    }
+
+    private static void checkOutput(int size, int outputSize, long[] nulls) {
+        if (outputSize < size || nulls.length < (size + 63) >>> 6) {
+            throw new IllegalArgumentException("The output arrays are too small for a column of " + size + " values");
+        }
+    }
+
+    /*
+     * Parses the values [from, to) of a column, from being a multiple of 64.
+     */
+    private static final class ParseTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient CharSequence[] column;
+        private final transient TemporalMatcher matcher;
+        private final long[] millis;
+        private final int[] days;
+        private final long[] nulls;
+        private final int from;
+        private final int to;
+
+        private ParseTask(CharSequence[] column, TemporalMatcher matcher, long[] millis, int[] days, long[] nulls,
+                int from, int to) {
+            this.column = column;
+            this.matcher = matcher;
+            this.millis = millis;
+            this.days = days;
+            this.nulls = nulls;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.to - this.from >= PARALLEL_THRESHOLD && getPool() != null) {
+                int middle = (this.from + (this.to - this.from) / 2) & ~63;
+                ParseTask right = new ParseTask(this.column, this.matcher, this.millis, this.days, this.nulls, middle,
+                        this.to);
+                right.fork();
+                int count = new ParseTask(this.column, this.matcher, this.millis, this.days, this.nulls, this.from,
+                        middle).compute();
+                return count + right.join();
+            }
+            return this.parse();
+        }
+
+        private int parse() {
+            TimeZone zone = this.days == null ? null : TimeZone.getDefault();
+            int count = 0;
+            for (int start = this.from; start < this.to; start += 64) {
+                int end = Math.min(start + 64, this.to);
+                long word = 0;
+                for (int i = start; i < end; i++) {
+                    java.util.Date parsed = null;
+                    CharSequence value = this.column[i];
+                    if (value != null) {
+                        String text = value.toString().trim();
+                        parsed = text.isEmpty() ? null : this.matcher.parse(text);
+                    }
+                    long epochMillis = 0;
+                    if (parsed == null) {
+                        word |= 1L << i;
+                        count++;
+                    } else {
+                        epochMillis = parsed.getTime();
+                    }
+                    if (this.days == null) {
+                        this.millis[i] = epochMillis;
+                    } else {
+                        this.days[i] = parsed == null ? 0
+                                : (int) Math.floorDiv(epochMillis + zone.getOffset(epochMillis), MILLIS_PER_DAY);
+                    }
+                }
+                this.nulls[start >>> 6] = word;
+            }
+            return count;
+        }
+    }
+}
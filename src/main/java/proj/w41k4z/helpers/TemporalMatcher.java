@@ -0,0 +1,210 @@
+package proj.w41k4z.helpers;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code TemporalMatcher} class parses temporal strings against a set of
+ * temporal patterns (such as the ones of a
+ * {@code proj.w41k4z.helpers.annotation.TemporalPattern} annotation) without
+ * using exceptions to move from a pattern to the next one.
+ * <p>
+ * Each pattern is compiled into its minimum length and its literal layout
+ * (the separators the parsed string must contain, in order). A string is only
+ * parsed against the patterns whose layout it can match, in the declaration
+ * order, so the same pattern wins as when trying each pattern in turn.
+ *
+ * @see proj.w41k4z.helpers.DateHelper
+ */
+public final class TemporalMatcher {
+
+    private static final ClassValue<ConcurrentMap<AnnotatedElement, TemporalMatcher>> MATCHERS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<AnnotatedElement, TemporalMatcher> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final String[] patterns;
+    private final char[][] literals;
+    private final int[] minimumLengths;
+
+    private TemporalMatcher(String[] patterns) {
+        this.patterns = patterns.clone();
+        this.literals = new char[patterns.length][];
+        this.minimumLengths = new int[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            // Validates the pattern
+            new java.text.SimpleDateFormat(patterns[i]);
+            StringBuilder literal = new StringBuilder();
+            int fields = compileLayout(patterns[i], literal);
+            this.literals[i] = literal.toString().toCharArray();
+            this.minimumLengths[i] = this.literals[i].length + fields;
+        }
+    }
+
+    /**
+     * Compiles a matcher for the given patterns.
+     *
+     * @param patterns the temporal patterns, by order of priority.
+     * @return the matcher.
+     */
+    public static TemporalMatcher compile(String... patterns) {
+        return new TemporalMatcher(patterns);
+    }
+
+    /**
+     * Returns the (cached) matcher of the supported patterns of a given temporal
+     * element.
+     *
+     * @param temporalElement the temporal element.
+     * @return the matcher.
+     * @throws NoSuchMethodException     if the annotated element has no getType
+     *                                   method.
+     * @throws IllegalAccessException    if the getType method is not accessible.
+     * @throws InvocationTargetException if the getType method throws an exception.
+     * @see DateHelper#getSupportedPatterns(AnnotatedElement)
+     */
+    public static TemporalMatcher of(AnnotatedElement temporalElement)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        Class<?> owner = getOwner(temporalElement);
+        if (owner == null) {
+            return compile(DateHelper.getSupportedPatterns(temporalElement));
+        }
+        ConcurrentMap<AnnotatedElement, TemporalMatcher> matchers = MATCHERS.get(owner);
+        TemporalMatcher matcher = matchers.get(temporalElement);
+        HelperMetrics.recordCacheAccess("TemporalMatcher", matcher != null);
+        if (matcher == null) {
+            matcher = compile(DateHelper.getSupportedPatterns(temporalElement));
+            TemporalMatcher existing = matchers.putIfAbsent(temporalElement, matcher);
+            if (existing != null) {
+                matcher = existing;
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * Returns the patterns of this matcher.
+     *
+     * @return the patterns, by order of priority.
+     */
+    public String[] getPatterns() {
+        return this.patterns.clone();
+    }
+
+    /**
+     * Returns the index of the first pattern parsing the given string.
+     *
+     * @param date the string temporal object.
+     * @return the index of the matching pattern or -1 if no pattern matches.
+     */
+    public int indexOf(String date) {
+        for (int i = 0; i < this.patterns.length; i++) {
+            if (this.fits(i, date) && DateHelper.parse(date, this.patterns[i]) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the given string with the first pattern matching it.
+     *
+     * @param type the type of the temporal object to create.
+     * @param date the string temporal object.
+     * @return the temporal object or null if no pattern matches.
+     * @see DateHelper#format(Class, String, String)
+     */
+    public java.util.Date parse(Class<?> type, String date) {
+        java.util.Date parsed = this.parse(date);
+        return parsed == null ? null : DateHelper.toTemporal(type, parsed.getTime());
+    }
+
+    /**
+     * Parses the given string with the first pattern matching it, without
+     * converting it to a temporal type.
+     *
+     * @param date the string temporal object.
+     * @return the parsed instant or null if no pattern matches.
+     */
+    java.util.Date parse(String date) {
+        for (int i = 0; i < this.patterns.length; i++) {
+            if (this.fits(i, date)) {
+                java.util.Date parsed = DateHelper.parse(date, this.patterns[i]);
+                HelperMetrics.recordParse(this.patterns[i], parsed != null);
+                if (parsed != null) {
+                    return parsed;
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Every field takes at least one character and every literal of the pattern
+     * has to be found, in order, in the parsed string.
+     */
+    private boolean fits(int index, String date) {
+        if (date.length() < this.minimumLengths[index]) {
+            return false;
+        }
+        char[] literal = this.literals[index];
+        int position = 0;
+        for (int i = 0; i < literal.length; i++) {
+            position = date.indexOf(literal[i], position);
+            if (position < 0) {
+                return false;
+            }
+            position++;
+        }
+        return true;
+    }
+
+    /*
+     * Appends the literals of the pattern and returns its number of fields,
+     * following the java.text.SimpleDateFormat pattern syntax.
+     */
+    private static int compileLayout(String pattern, StringBuilder literal) {
+        int fields = 0;
+        boolean quoted = false;
+        char previous = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+                previous = 0;
+            } else if (!quoted && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                if (c != previous) {
+                    fields++;
+                }
+                previous = c;
+            } else {
+                literal.append(c);
+                previous = 0;
+            }
+        }
+        return fields;
+    }
+
+    private static Class<?> getOwner(AnnotatedElement temporalElement) {
+        if (temporalElement instanceof Member) {
+            return ((Member) temporalElement).getDeclaringClass();
+        }
+        if (temporalElement instanceof Parameter) {
+            return ((Parameter) temporalElement).getDeclaringExecutable().getDeclaringClass();
+        }
+        return null;
+    }
+}
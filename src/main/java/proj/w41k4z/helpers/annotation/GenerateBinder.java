@@ -0,0 +1,21 @@
+package proj.w41k4z.helpers.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The {@code GenerateBinder} annotation asks the {@code helpers-processor}
+ * annotation processor to generate a {@code proj.w41k4z.helpers.java.FieldBinder}
+ * for the annotated class at compile time. The classes having
+ * {@link TemporalPattern} fields get one without being annotated.
+ * <p>
+ * The {@code proj.w41k4z.helpers.java.JavaClass} field accessors then use the
+ * generated binder instead of looking the getters and setters up by
+ * reflection.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface GenerateBinder {
+}
@@ -0,0 +1,29 @@
+package proj.w41k4z.helpers.exception;
+
+/**
+ * The {@code BindingException} class is used to throw an exception when a row
+ * of data cannot be bound to an object.
+ */
+public class BindingException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The constructor with a custom error message.
+     * 
+     * @param message the custom error message.
+     */
+    public BindingException(String message) {
+        super("ERROR: " + message);
+    }
+
+    /**
+     * The constructor with a custom error message and the cause of the error.
+     * 
+     * @param message the custom error message.
+     * @param cause   the cause of the error.
+     */
+    public BindingException(String message, Throwable cause) {
+        super("ERROR: " + message, cause);
+    }
+}
@@ -0,0 +1,29 @@
+package proj.w41k4z.helpers.exception;
+
+/**
+ * The {@code UncheckedBindingException} class wraps a {@link BindingException}
+ * thrown where a checked exception cannot be (a stream, a callback).
+ */
+public class UncheckedBindingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The constructor with the wrapped binding exception.
+     * 
+     * @param cause the binding exception.
+     */
+    public UncheckedBindingException(BindingException cause) {
+        super(cause);
+    }
+
+    /**
+     * Returns the wrapped binding exception.
+     * 
+     * @return the binding exception.
+     */
+    @Override
+    public synchronized BindingException getCause() {
+        return (BindingException) super.getCause();
+    }
+}
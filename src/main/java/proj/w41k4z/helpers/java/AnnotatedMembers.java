@@ -0,0 +1,107 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@code AnnotatedMembers} class holds the reflective members of a class
+ * (its public methods, its declared fields and its inherited fields) and the
+ * ones annotated with a given annotation set, computed once per class and per
+ * annotation set.
+ */
+final class AnnotatedMembers {
+
+    private static final ClassValue<AnnotatedMembers> MEMBERS = new ClassValue<>() {
+        @Override
+        protected AnnotatedMembers computeValue(Class<?> type) {
+            return new AnnotatedMembers(type);
+        }
+    };
+
+    private final Method[] methods;
+    private final Field[] declaredFields;
+    private final Field[] allFields;
+    private final ConcurrentMap<Object, List<Method>> annotatedMethods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, List<Field>> annotatedDeclaredFields = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, List<Field>> annotatedFields = new ConcurrentHashMap<>();
+
+    private AnnotatedMembers(Class<?> type) {
+        this.methods = type.getMethods();
+        this.declaredFields = type.getDeclaredFields();
+        List<Field> fields = new ArrayList<>(Arrays.asList(this.declaredFields));
+        for (Class<?> parent = type.getSuperclass(); parent != null; parent = parent.getSuperclass()) {
+            fields.addAll(Arrays.asList(parent.getDeclaredFields()));
+        }
+        this.allFields = fields.toArray(new Field[0]);
+    }
+
+    /**
+     * Returns the annotated members of the given class.
+     *
+     * @param type the class.
+     * @return the (cached) annotated members.
+     */
+    static AnnotatedMembers of(Class<?> type) {
+        return MEMBERS.get(type);
+    }
+
+    /**
+     * Returns the public methods annotated with one of the given annotations.
+     *
+     * @param annotationClasses the annotation class(es).
+     * @return the (cached) unmodifiable list of methods.
+     */
+    List<Method> getMethods(Class<? extends Annotation>[] annotationClasses) {
+        return lookup(this.annotatedMethods, this.methods, annotationClasses);
+    }
+
+    /**
+     * Returns the fields annotated with one of the given annotations.
+     *
+     * @param inherited         true to include the fields of the superclasses.
+     * @param annotationClasses the annotation class(es).
+     * @return the (cached) unmodifiable list of fields.
+     */
+    List<Field> getFields(boolean inherited, Class<? extends Annotation>[] annotationClasses) {
+        return inherited ? lookup(this.annotatedFields, this.allFields, annotationClasses)
+                : lookup(this.annotatedDeclaredFields, this.declaredFields, annotationClasses);
+    }
+
+    private static <M extends AccessibleObject> List<M> lookup(ConcurrentMap<Object, List<M>> cache, M[] members,
+            Class<? extends Annotation>[] annotationClasses) {
+        // A single annotation is its own key, avoiding any allocation
+        Object key = annotationClasses.length == 1 ? annotationClasses[0] : Arrays.asList(annotationClasses);
+        List<M> annotated = cache.get(key);
+        if (annotated == null) {
+            annotated = filter(members, annotationClasses);
+            List<M> existing = cache.putIfAbsent(annotationClasses.length == 1 ? key : List.of(annotationClasses),
+                    annotated);
+            if (existing != null) {
+                annotated = existing;
+            }
+        }
+        return annotated;
+    }
+
+    private static <M extends AccessibleObject> List<M> filter(M[] members,
+            Class<? extends Annotation>[] annotationClasses) {
+        List<M> annotated = new ArrayList<>();
+        for (M member : members) {
+            for (Class<? extends Annotation> annotationClass : annotationClasses) {
+                if (member.isAnnotationPresent(annotationClass)) {
+                    annotated.add(member);
+                    break;
+                }
+            }
+        }
+        return Collections.unmodifiableList(annotated);
+    }
+}
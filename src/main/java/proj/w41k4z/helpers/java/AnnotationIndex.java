@@ -0,0 +1,564 @@
+package proj.w41k4z.helpers.java;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import proj.w41k4z.helpers.exception.JavaFileException;
+
+/**
+ * The {@code AnnotationIndex} class indexes the runtime visible annotations of
+ * the compiled classes of a directory (class, field and method annotations)
+ * by reading the {@code .class} files, so that no class is loaded nor
+ * initialized to find the annotated ones.
+ * <p>
+ * The index can be persisted in a compact binary file; on the next
+ * {@link #load(Path, Path)}, only the class files whose modification time or
+ * size changed are read again.
+ */
+public final class AnnotationIndex {
+
+    private static final int MAGIC = 0x48414958;
+    private static final int VERSION = 1;
+    private static final String CLASS_EXTENSION = ".class";
+
+    private final Map<String, FileRecord> files;
+    private final Map<String, ClassEntry> classes = new LinkedHashMap<>();
+    private final Map<String, Set<String>> annotatedClasses = new HashMap<>();
+    private final Map<String, Set<String>> classesWithAnnotatedMembers = new HashMap<>();
+
+    private AnnotationIndex(Map<String, FileRecord> files) {
+        this.files = files;
+        for (FileRecord file : files.values()) {
+            ClassEntry entry = file.entry;
+            this.classes.put(entry.name, entry);
+            for (String annotation : entry.annotations) {
+                this.annotatedClasses.computeIfAbsent(annotation, key -> new TreeSet<>()).add(entry.name);
+            }
+            for (MemberEntry member : entry.getMembers()) {
+                for (String annotation : member.annotations) {
+                    this.classesWithAnnotatedMembers.computeIfAbsent(annotation, key -> new TreeSet<>())
+                            .add(entry.name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the index of all the compiled classes of a directory.
+     *
+     * @param classesRoot the root of the compiled classes (the package root).
+     * @return the index.
+     * @throws IOException if a class file cannot be read.
+     */
+    public static AnnotationIndex build(Path classesRoot) throws IOException {
+        return new AnnotationIndex(scan(classesRoot, Collections.emptyMap()));
+    }
+
+    /**
+     * Loads the index of the compiled classes of a directory from the given
+     * index file, reading again only the class files that changed since it was
+     * saved. The index file is updated if anything changed.
+     *
+     * @param classesRoot the root of the compiled classes (the package root).
+     * @param indexFile   the persisted index (it does not need to exist).
+     * @return the up to date index.
+     * @throws IOException if a class file cannot be read or the index cannot be
+     *                     saved.
+     */
+    public static AnnotationIndex load(Path classesRoot, Path indexFile) throws IOException {
+        Map<String, FileRecord> previous = readIndex(indexFile);
+        Map<String, FileRecord> current = scan(classesRoot, previous);
+        AnnotationIndex index = new AnnotationIndex(current);
+        if (!current.equals(previous)) {
+            index.save(indexFile);
+        }
+        return index;
+    }
+
+    /**
+     * Saves the index into a binary file.
+     *
+     * @param indexFile the file to save the index to.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path indexFile) throws IOException {
+        StringTable strings = new StringTable();
+        for (Map.Entry<String, FileRecord> file : this.files.entrySet()) {
+            strings.add(file.getKey());
+            file.getValue().entry.collectStrings(strings);
+        }
+        Path temporary = Files.createTempFile(indexFile.toAbsolutePath().getParent(), "index", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.values.size());
+            for (String value : strings.values) {
+                out.writeUTF(value);
+            }
+            out.writeInt(this.files.size());
+            for (Map.Entry<String, FileRecord> file : this.files.entrySet()) {
+                out.writeInt(strings.indexOf(file.getKey()));
+                out.writeLong(file.getValue().lastModified);
+                out.writeLong(file.getValue().size);
+                file.getValue().entry.write(out, strings);
+            }
+        }
+        Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns the names of all the indexed classes.
+     *
+     * @return the binary names of the classes.
+     */
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(this.classes.keySet());
+    }
+
+    /**
+     * Returns the annotations of an indexed class.
+     *
+     * @param className the binary name of the class.
+     * @return the class entry or null if the class is not indexed.
+     */
+    public ClassEntry getClassEntry(String className) {
+        return this.classes.get(className);
+    }
+
+    /**
+     * Returns the classes annotated with the given annotation.
+     *
+     * @param annotationClass the annotation class.
+     * @return the binary names of the annotated classes.
+     */
+    public Set<String> getClassesAnnotatedWith(Class<? extends Annotation> annotationClass) {
+        return this.getClassesAnnotatedWith(annotationClass.getName());
+    }
+
+    /**
+     * Returns the classes annotated with the given annotation.
+     *
+     * @param annotationName the binary name of the annotation.
+     * @return the binary names of the annotated classes.
+     */
+    public Set<String> getClassesAnnotatedWith(String annotationName) {
+        return Collections.unmodifiableSet(this.annotatedClasses.getOrDefault(annotationName, Collections.emptySet()));
+    }
+
+    /**
+     * Returns the classes having a field or a method annotated with the given
+     * annotation.
+     *
+     * @param annotationClass the annotation class.
+     * @return the binary names of the classes.
+     */
+    public Set<String> getClassesWithMembersAnnotatedWith(Class<? extends Annotation> annotationClass) {
+        return this.getClassesWithMembersAnnotatedWith(annotationClass.getName());
+    }
+
+    /**
+     * Returns the classes having a field or a method annotated with the given
+     * annotation.
+     *
+     * @param annotationName the binary name of the annotation.
+     * @return the binary names of the classes.
+     */
+    public Set<String> getClassesWithMembersAnnotatedWith(String annotationName) {
+        return Collections.unmodifiableSet(
+                this.classesWithAnnotatedMembers.getOrDefault(annotationName, Collections.emptySet()));
+    }
+
+    private static Map<String, FileRecord> scan(Path classesRoot, Map<String, FileRecord> previous)
+            throws IOException {
+        Map<String, FileRecord> current = new LinkedHashMap<>();
+        List<String> changed = new ArrayList<>();
+        Map<String, Path> paths = new HashMap<>();
+        Map<String, BasicFileAttributes> attributes = new HashMap<>();
+        Files.walkFileTree(classesRoot, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes fileAttributes) {
+                if (fileAttributes.isRegularFile() && file.getFileName().toString().endsWith(CLASS_EXTENSION)) {
+                    String relativePath = classesRoot.relativize(file).toString();
+                    FileRecord record = previous.get(relativePath);
+                    if (record != null && record.lastModified == fileAttributes.lastModifiedTime().toMillis()
+                            && record.size == fileAttributes.size()) {
+                        current.put(relativePath, record);
+                    } else {
+                        // keeps the walk order, filled after the parsing
+                        current.put(relativePath, null);
+                        changed.add(relativePath);
+                        paths.put(relativePath, file);
+                        attributes.put(relativePath, fileAttributes);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Map<String, FileRecord> parsed = new HashMap<>();
+        try {
+            changed.parallelStream().forEach(relativePath -> {
+                BasicFileAttributes fileAttributes = attributes.get(relativePath);
+                try {
+                    ClassEntry entry = ClassFileReader.read(Files.readAllBytes(paths.get(relativePath)));
+                    FileRecord record = new FileRecord(fileAttributes.lastModifiedTime().toMillis(),
+                            fileAttributes.size(), entry);
+                    synchronized (parsed) {
+                        parsed.put(relativePath, record);
+                    }
+                } catch (JavaFileException e) {
+                    // Not a valid class file: not indexed
+                } catch (NoSuchFileException e) {
+                    // Deleted meanwhile
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (String relativePath : changed) {
+            FileRecord record = parsed.get(relativePath);
+            if (record == null) {
+                current.remove(relativePath);
+            } else {
+                current.put(relativePath, record);
+            }
+        }
+        return current;
+    }
+
+    private static Map<String, FileRecord> readIndex(Path indexFile) {
+        if (!Files.isRegularFile(indexFile)) {
+            return Collections.emptyMap();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            long fileSize = Files.size(indexFile);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return Collections.emptyMap();
+            }
+            String[] strings = new String[readCount(in, fileSize)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readUTF();
+            }
+            int count = readCount(in, fileSize);
+            Map<String, FileRecord> files = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String relativePath = strings[in.readInt()];
+                long lastModified = in.readLong();
+                long size = in.readLong();
+                files.put(relativePath, new FileRecord(lastModified, size, ClassEntry.read(in, strings, fileSize)));
+            }
+            return files;
+        } catch (IOException | RuntimeException e) {
+            // Unreadable (truncated or corrupt) index: rebuilt from the class files
+            return Collections.emptyMap();
+        }
+    }
+
+    /*
+     * Every counted element takes at least two bytes, so a count larger than the
+     * file is corrupt.
+     */
+    private static int readCount(DataInputStream in, long fileSize) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > fileSize / 2) {
+            throw new IOException("Corrupt annotation index: invalid count " + count);
+        }
+        return count;
+    }
+
+    private static List<String> readStrings(DataInputStream in, String[] strings, long fileSize) throws IOException {
+        int count = readCount(in, fileSize);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(strings[in.readInt()]);
+        }
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream out, StringTable strings, List<String> values)
+            throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(strings.indexOf(value));
+        }
+    }
+
+    /**
+     * The annotations of an indexed class and of its annotated members.
+     */
+    public static final class ClassEntry {
+
+        private final String name;
+        private final List<String> annotations;
+        private final List<MemberEntry> fields;
+        private final List<MemberEntry> methods;
+
+        ClassEntry(String name, List<String> annotations, List<MemberEntry> fields, List<MemberEntry> methods) {
+            this.name = name;
+            this.annotations = Collections.unmodifiableList(annotations);
+            this.fields = Collections.unmodifiableList(fields);
+            this.methods = Collections.unmodifiableList(methods);
+        }
+
+        /**
+         * Returns the binary name of the class.
+         *
+         * @return the class name.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the annotations of the class.
+         *
+         * @return the binary names of the annotations.
+         */
+        public List<String> getAnnotations() {
+            return this.annotations;
+        }
+
+        /**
+         * Returns the annotated fields of the class.
+         *
+         * @return the annotated fields.
+         */
+        public List<MemberEntry> getFields() {
+            return this.fields;
+        }
+
+        /**
+         * Returns the annotated methods (and constructors) of the class.
+         *
+         * @return the annotated methods.
+         */
+        public List<MemberEntry> getMethods() {
+            return this.methods;
+        }
+
+        /**
+         * Returns the methods annotated with the given annotation.
+         *
+         * @param annotationName the binary name of the annotation.
+         * @return the annotated methods.
+         */
+        public List<MemberEntry> getMethodsAnnotatedWith(String annotationName) {
+            return filter(this.methods, annotationName);
+        }
+
+        /**
+         * Returns the fields annotated with the given annotation.
+         *
+         * @param annotationName the binary name of the annotation.
+         * @return the annotated fields.
+         */
+        public List<MemberEntry> getFieldsAnnotatedWith(String annotationName) {
+            return filter(this.fields, annotationName);
+        }
+
+        private List<MemberEntry> getMembers() {
+            List<MemberEntry> members = new ArrayList<>(this.fields);
+            members.addAll(this.methods);
+            return members;
+        }
+
+        private void collectStrings(StringTable strings) {
+            strings.add(this.name);
+            this.annotations.forEach(strings::add);
+            for (MemberEntry member : this.getMembers()) {
+                strings.add(member.name);
+                strings.add(member.descriptor);
+                member.annotations.forEach(strings::add);
+            }
+        }
+
+        private void write(DataOutputStream out, StringTable strings) throws IOException {
+            out.writeInt(strings.indexOf(this.name));
+            writeStrings(out, strings, this.annotations);
+            for (List<MemberEntry> members : List.of(this.fields, this.methods)) {
+                out.writeInt(members.size());
+                for (MemberEntry member : members) {
+                    out.writeInt(strings.indexOf(member.name));
+                    out.writeInt(strings.indexOf(member.descriptor));
+                    writeStrings(out, strings, member.annotations);
+                }
+            }
+        }
+
+        private static ClassEntry read(DataInputStream in, String[] strings, long fileSize) throws IOException {
+            String name = strings[in.readInt()];
+            List<String> annotations = readStrings(in, strings, fileSize);
+            List<List<MemberEntry>> members = new ArrayList<>(2);
+            for (int i = 0; i < 2; i++) {
+                int count = readCount(in, fileSize);
+                List<MemberEntry> entries = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    entries.add(new MemberEntry(strings[in.readInt()], strings[in.readInt()],
+                            readStrings(in, strings, fileSize)));
+                }
+                members.add(entries);
+            }
+            return new ClassEntry(name, annotations, members.get(0), members.get(1));
+        }
+
+        private static List<MemberEntry> filter(List<MemberEntry> members, String annotationName) {
+            List<MemberEntry> annotated = new ArrayList<>();
+            for (MemberEntry member : members) {
+                if (member.annotations.contains(annotationName)) {
+                    annotated.add(member);
+                }
+            }
+            return annotated;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof ClassEntry)) {
+                return false;
+            }
+            ClassEntry entry = (ClassEntry) other;
+            return this.name.equals(entry.name) && this.annotations.equals(entry.annotations)
+                    && this.fields.equals(entry.fields) && this.methods.equals(entry.methods);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+    }
+
+    /**
+     * The annotations of an indexed field or method.
+     */
+    public static final class MemberEntry {
+
+        private final String name;
+        private final String descriptor;
+        private final List<String> annotations;
+
+        MemberEntry(String name, String descriptor, List<String> annotations) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.annotations = Collections.unmodifiableList(annotations);
+        }
+
+        /**
+         * Returns the name of the member ({@code <init>} for the constructors).
+         *
+         * @return the member name.
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the JVM descriptor of the member (its type for a field, its
+         * signature for a method).
+         *
+         * @return the member descriptor.
+         */
+        public String getDescriptor() {
+            return this.descriptor;
+        }
+
+        /**
+         * Returns the annotations of the member.
+         *
+         * @return the binary names of the annotations.
+         */
+        public List<String> getAnnotations() {
+            return this.annotations;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof MemberEntry)) {
+                return false;
+            }
+            MemberEntry entry = (MemberEntry) other;
+            return this.name.equals(entry.name) && this.descriptor.equals(entry.descriptor)
+                    && this.annotations.equals(entry.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode() * 31 + this.descriptor.hashCode();
+        }
+    }
+
+    /*
+     * An indexed class file with the attributes it had when it was read.
+     */
+    private static final class FileRecord {
+
+        private final long lastModified;
+        private final long size;
+        private final ClassEntry entry;
+
+        private FileRecord(long lastModified, long size, ClassEntry entry) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.entry = entry;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof FileRecord)) {
+                return false;
+            }
+            FileRecord record = (FileRecord) other;
+            return this.lastModified == record.lastModified && this.size == record.size
+                    && this.entry.equals(record.entry);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.lastModified) * 31 + this.entry.hashCode();
+        }
+    }
+
+    /*
+     * The strings of the index file, each one written once.
+     */
+    private static final class StringTable {
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private void add(String value) {
+            if (!this.indexes.containsKey(value)) {
+                this.indexes.put(value, this.values.size());
+                this.values.add(value);
+            }
+        }
+
+        private int indexOf(String value) {
+            return this.indexes.get(value);
+        }
+    }
+}
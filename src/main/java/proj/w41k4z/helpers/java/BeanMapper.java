@@ -0,0 +1,375 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import proj.w41k4z.helpers.DateHelper;
+import proj.w41k4z.helpers.annotation.TemporalPattern;
+import proj.w41k4z.helpers.exception.BindingException;
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code BeanMapper} class copies the properties of the objects of a
+ * source class to the objects of a target class (DTOs to entities and back).
+ * The properties are matched once by field name (as is, then in camelCase) and
+ * by type, and compiled into a single {@code MethodHandle} chain calling the
+ * source getters and the target setters with the conversions in between:
+ * <ul>
+ * <li>the assignable (or boxed) values are copied as is,</li>
+ * <li>the temporal values are converted to the target temporal type, parsed
+ * from strings following the {@code TemporalPattern} of the temporal field or
+ * formatted to strings following the one of the string field (else of the
+ * temporal field, else the default format of the temporal type),</li>
+ * <li>the other values go through the {@link ConverterRegistry},</li>
+ * <li>the nested beans (non JDK classes with a public no-argument constructor)
+ * are mapped with their own mapper, so the graph must not be cyclic.</li>
+ * </ul>
+ * The fields with no compatible counterpart are ignored. A {@code null} value
+ * is copied as is, except to a primitive field which keeps its value.
+ * <p>
+ * Mappers are cached per source class through a {@code ClassValue}.
+ *
+ * @param <S> the type of the source objects.
+ * @param <T> the type of the target objects.
+ */
+public final class BeanMapper<S, T> {
+
+    private static final ClassValue<ConcurrentMap<Class<?>, BeanMapper<?, ?>>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Class<?>, BeanMapper<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle CONVERT;
+    private static final MethodHandle TO_TEMPORAL;
+    private static final MethodHandle FORMAT;
+    private static final MethodHandle PARSE;
+    private static final MethodHandle MAP_NESTED;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            IS_NULL = lookup.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+            CONVERT = lookup.findStatic(BeanMapper.class, "convert",
+                    MethodType.methodType(Object.class, TypeConverter.class, Object.class));
+            TO_TEMPORAL = lookup.findStatic(BeanMapper.class, "toTemporal",
+                    MethodType.methodType(Object.class, Class.class, Object.class));
+            FORMAT = lookup.findStatic(BeanMapper.class, "format",
+                    MethodType.methodType(Object.class, String.class, Object.class));
+            PARSE = lookup.findStatic(BeanMapper.class, "parse",
+                    MethodType.methodType(Object.class, FieldConverter.class, Object.class));
+            MAP_NESTED = lookup.findStatic(BeanMapper.class, "mapNested",
+                    MethodType.methodType(Object.class, Nested.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<S> sourceType;
+    private final Class<T> targetType;
+    private final MethodHandle constructor;
+    private final MethodHandle copier;
+    private final List<String> properties;
+
+    private BeanMapper(Class<S> sourceType, Class<T> targetType)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.constructor = findConstructor(targetType);
+        List<String> properties = new ArrayList<>();
+        List<MethodHandle> steps = new ArrayList<>();
+        for (Field targetField : Binder.getFields(targetType)) {
+            Field sourceField = Binder.findField(sourceType, targetField.getName());
+            MethodHandle step = sourceField == null ? null : compile(sourceType, sourceField, targetType, targetField);
+            if (step != null) {
+                properties.add(targetField.getName());
+                steps.add(step);
+            }
+        }
+        MethodHandle copier = MethodHandles.empty(COPY_TYPE);
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            copier = MethodHandles.foldArguments(copier, steps.get(i));
+        }
+        this.copier = copier;
+        this.properties = Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * Returns the mapper from the given source class to the given target class.
+     *
+     * @param <S>        the type of the source objects.
+     * @param <T>        the type of the target objects.
+     * @param sourceType the class of the source objects.
+     * @param targetType the class of the target objects.
+     * @return the (cached) mapper.
+     * @throws NoSuchMethodException     if the supported temporal patterns of a
+     *                                   field cannot be retrieved
+     * @throws IllegalAccessException    if the supported temporal patterns of a
+     *                                   field cannot be retrieved
+     * @throws InvocationTargetException if the supported temporal patterns of a
+     *                                   field cannot be retrieved
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanMapper<S, T> of(Class<S> sourceType, Class<T> targetType)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        ConcurrentMap<Class<?>, BeanMapper<?, ?>> mappers = MAPPERS.get(sourceType);
+        BeanMapper<?, ?> mapper = mappers.get(targetType);
+        HelperMetrics.recordCacheAccess("BeanMapper", mapper != null);
+        if (mapper == null) {
+            mapper = new BeanMapper<>(sourceType, targetType);
+            BeanMapper<?, ?> existing = mappers.putIfAbsent(targetType, mapper);
+            if (existing != null) {
+                mapper = existing;
+            }
+        }
+        return (BeanMapper<S, T>) mapper;
+    }
+
+    /**
+     * Returns the class of the source objects.
+     *
+     * @return the source class.
+     */
+    public Class<S> getSourceType() {
+        return this.sourceType;
+    }
+
+    /**
+     * Returns the class of the target objects.
+     *
+     * @return the target class.
+     */
+    public Class<T> getTargetType() {
+        return this.targetType;
+    }
+
+    /**
+     * Returns the names of the target fields copied by this mapper, in copy
+     * order.
+     *
+     * @return the mapped properties.
+     */
+    public List<String> getProperties() {
+        return this.properties;
+    }
+
+    /**
+     * Maps a source object to a new target object.
+     *
+     * @param source the source object.
+     * @return the new target object, null if the source object is null.
+     * @throws BindingException if the target class has no public no-argument
+     *                          constructor or a property cannot be copied.
+     */
+    @SuppressWarnings("unchecked")
+    public T map(S source) throws BindingException {
+        if (source == null) {
+            return null;
+        }
+        if (this.constructor == null) {
+            throw new BindingException(this.targetType.getName() + " has no public no-argument constructor");
+        }
+        T target;
+        try {
+            target = (T) (Object) this.constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new BindingException("cannot create a new " + this.targetType.getName(), e);
+        }
+        this.copy(source, target);
+        return target;
+    }
+
+    /**
+     * Maps the source objects to new target objects.
+     *
+     * @param sources the source objects.
+     * @return the new target objects, in the order of the source objects.
+     * @throws BindingException if a source object cannot be mapped.
+     */
+    public List<T> mapAll(List<? extends S> sources) throws BindingException {
+        List<T> targets = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            targets.add(this.map(source));
+        }
+        return targets;
+    }
+
+    /**
+     * Copies the properties of a source object to an existing target object.
+     *
+     * @param source the source object.
+     * @param target the target object.
+     * @throws BindingException if a property cannot be copied.
+     */
+    public void copy(S source, T target) throws BindingException {
+        long start = HelperMetrics.start();
+        try {
+            this.copier.invokeExact((Object) source, (Object) target);
+        } catch (BindingException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BindingException("cannot map a " + this.sourceType.getName() + " to a "
+                    + this.targetType.getName(), e);
+        }
+        HelperMetrics.recordBind(this.targetType, start);
+    }
+
+    /*
+     * Compiles the copy of a property as a (source, target) handle, or returns
+     * null if the fields are not accessible or compatible.
+     */
+    private static MethodHandle compile(Class<?> sourceType, Field sourceField, Class<?> targetType,
+            Field targetField) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        MethodHandle getter;
+        MethodHandle setter;
+        try {
+            getter = FieldAccessor.of(sourceType, sourceField).getterHandle();
+            setter = FieldAccessor.of(targetType, targetField).setterHandle();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // Not a readable source property or not a writable target property
+            return null;
+        }
+        MethodHandle conversion = conversion(getter.type().returnType(), sourceField, targetField);
+        if (conversion == null) {
+            return null;
+        }
+        getter = getter.asType(getter.type().changeParameterType(0, Object.class));
+        MethodHandle value = MethodHandles.filterReturnValue(getter, conversion);
+        Class<?> valueType = value.type().returnType();
+        setter = setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+        if (targetField.getType().isPrimitive() && !valueType.isPrimitive()) {
+            // A null value leaves the primitive field unchanged
+            MethodHandle isNull = MethodHandles.dropArguments(
+                    IS_NULL.asType(MethodType.methodType(boolean.class, valueType)), 0, Object.class);
+            setter = MethodHandles.guardWithTest(isNull, MethodHandles.empty(setter.type()), setter);
+        }
+        // (target, source) to (source, target)
+        MethodHandle step = MethodHandles.filterArguments(setter, 1, value);
+        return MethodHandles.permuteArguments(step, COPY_TYPE, 1, 0);
+    }
+
+    /*
+     * Returns the conversion from the getter return type to the target field
+     * type, or null if the types are not compatible.
+     */
+    private static MethodHandle conversion(Class<?> sourceClass, Field sourceField, Field targetField)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        Class<?> targetClass = targetField.getType();
+        if (targetClass.isAssignableFrom(sourceClass) || box(sourceClass) == box(targetClass)) {
+            return MethodHandles.identity(sourceClass);
+        }
+        MethodHandle conversion = null;
+        if (java.util.Date.class.isAssignableFrom(sourceClass) && java.util.Date.class.isAssignableFrom(targetClass)) {
+            conversion = MethodHandles.insertArguments(TO_TEMPORAL, 0, targetClass);
+        } else if (java.util.Date.class.isAssignableFrom(sourceClass) && targetClass == String.class) {
+            conversion = MethodHandles.insertArguments(FORMAT, 0, formatPattern(sourceClass, sourceField, targetField));
+        } else if (CharSequence.class.isAssignableFrom(sourceClass)
+                && java.util.Date.class.isAssignableFrom(targetClass)) {
+            conversion = MethodHandles.insertArguments(PARSE, 0, FieldConverter.of(targetField));
+        } else if (isBean(sourceClass) && isBean(targetClass) && findConstructor(targetClass) != null) {
+            conversion = MethodHandles.insertArguments(MAP_NESTED, 0, new Nested(sourceClass, targetClass));
+        } else {
+            TypeConverter<?, ?> converter = ConverterRegistry.find(box(sourceClass), targetClass);
+            if (converter != null) {
+                conversion = MethodHandles.insertArguments(CONVERT, 0, converter);
+            }
+        }
+        return conversion == null ? null : conversion.asType(MethodType.methodType(Object.class, sourceClass));
+    }
+
+    /*
+     * The first pattern of the target string field, else of the source temporal
+     * field, else the default format of the source type.
+     */
+    private static String formatPattern(Class<?> sourceClass, Field sourceField, Field targetField) {
+        TemporalPattern pattern = targetField.getAnnotation(TemporalPattern.class);
+        if (pattern == null) {
+            pattern = sourceField.getAnnotation(TemporalPattern.class);
+        }
+        return pattern == null ? DateHelper.getValidTemporalFormat(sourceClass) : pattern.value()[0];
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return type.isPrimitive() ? PrimitiveConverter.wrapperOf(type) : type;
+    }
+
+    private static boolean isBean(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isEnum() && !type.isInterface()
+                && !Modifier.isAbstract(type.getModifiers()) && !type.getName().startsWith("java.")
+                && !type.getName().startsWith("javax.");
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object convert(TypeConverter<?, ?> converter, Object value) {
+        return value == null ? null : ((TypeConverter<Object, ?>) converter).convert(value);
+    }
+
+    private static Object toTemporal(Class<?> type, Object value) {
+        return value == null ? null : DateHelper.toTemporal(type, ((java.util.Date) value).getTime());
+    }
+
+    private static Object format(String pattern, Object value) {
+        return value == null ? null : DateHelper.toString((java.util.Date) value, pattern);
+    }
+
+    private static Object parse(FieldConverter converter, Object value) {
+        return value == null ? null : converter.convert(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object mapNested(Nested nested, Object value) throws BindingException {
+        return value == null ? null : ((BeanMapper<Object, ?>) nested.get()).map(value);
+    }
+
+    /*
+     * The mapper of a nested bean, resolved on its first use so that the
+     * mappers of self-referencing classes can be compiled.
+     */
+    private static final class Nested {
+
+        private final Class<?> sourceType;
+        private final Class<?> targetType;
+        private volatile BeanMapper<?, ?> mapper;
+
+        private Nested(Class<?> sourceType, Class<?> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        private BeanMapper<?, ?> get() throws BindingException {
+            BeanMapper<?, ?> mapper = this.mapper;
+            if (mapper == null) {
+                try {
+                    mapper = this.mapper = of(this.sourceType, this.targetType);
+                } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                    throw new BindingException("cannot map a " + this.sourceType.getName() + " to a "
+                            + this.targetType.getName(), e);
+                }
+            }
+            return mapper;
+        }
+    }
+}
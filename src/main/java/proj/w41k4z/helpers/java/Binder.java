@@ -0,0 +1,400 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import proj.w41k4z.helpers.NamingStrategy;
+import proj.w41k4z.helpers.exception.BindingException;
+import proj.w41k4z.helpers.exception.UncheckedBindingException;
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code Binder} class binds rows of data (query results, CSV lines, ...)
+ * to new objects of a given class. The binding plan (field lookup, setters,
+ * type conversions) is compiled once for the target class and the column
+ * layout, then reused for every row.
+ * <p>
+ * The rows can be given as {@code Object[]} (and so {@code String[]}) indexed
+ * by the column layout, or as {@code Map<String, ?>} keyed by the column
+ * names. A {@code null} cell leaves the field to its default value.
+ *
+ * @param <T> the type of the objects to bind the rows to.
+ */
+public class Binder<T> {
+
+    /**
+     * The default minimum number of rows for a batch to be split across the
+     * fork-join pool of a parallel binder.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final Column[] columns;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private Binder(Class<T> type, MethodHandle constructor, Column[] columns, ForkJoinPool pool,
+            int parallelThreshold) {
+        this.type = type;
+        this.constructor = constructor;
+        this.columns = columns;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Compiles a binder for the given class and column layout. The columns are
+     * matched by name with the fields of the class (or of its superclasses),
+     * then by their camelCase form ({@code first_name} or {@code first-name}
+     * matches {@code firstName}); {@code null} columns and columns matching no
+     * field are ignored. When no
+     * column is given, every field having a setter is used, in declaration order.
+     *
+     * @param <T>     the type of the objects to bind the rows to.
+     * @param type    the class of the objects to bind the rows to.
+     * @param columns the column layout of the rows.
+     * @return the binder.
+     * @throws NoSuchMethodException     if the class has no public no-argument
+     *                                   constructor or a matched field has no
+     *                                   setter (following the java naming
+     *                                   convention)
+     * @throws IllegalAccessException    if the constructor or a setter is not
+     *                                   public
+     * @throws InvocationTargetException if the supported temporal patterns of a
+     *                                   field cannot be retrieved
+     */
+    public static <T> Binder<T> of(Class<T> type, String... columns)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        MethodHandle constructor = MethodHandles.publicLookup()
+                .findConstructor(type, MethodType.methodType(void.class))
+                .asType(CONSTRUCTOR_TYPE);
+        Column[] layout;
+        if (columns.length == 0) {
+            List<Column> settable = new ArrayList<>();
+            for (Field field : getFields(type)) {
+                try {
+                    settable.add(new Column(field.getName(), FieldAccessor.of(type, field).requireSetter(),
+                            FieldConverter.of(field)));
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    // Not a settable field
+                }
+            }
+            layout = settable.toArray(new Column[0]);
+        } else {
+            layout = new Column[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                Field field = columns[i] == null ? null : findField(type, columns[i]);
+                if (field != null) {
+                    layout[i] = new Column(columns[i], FieldAccessor.of(type, field).requireSetter(),
+                            FieldConverter.of(field));
+                }
+            }
+        }
+        return new Binder<>(type, constructor, layout, null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Returns a binder with the same plan which splits the batches of at least
+     * {@link #DEFAULT_PARALLEL_THRESHOLD} rows across the common fork-join pool.
+     *
+     * @return the parallel binder.
+     */
+    public Binder<T> parallel() {
+        return this.parallel(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Returns a binder with the same plan which splits the batches across the
+     * given fork-join pool.
+     *
+     * @param pool      the pool to bind the batches with.
+     * @param threshold the minimum number of rows for a batch to be split.
+     * @return the parallel binder.
+     */
+    public Binder<T> parallel(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The parallel threshold must be positive");
+        }
+        return new Binder<>(this.type, this.constructor, this.columns, pool, threshold);
+    }
+
+    /**
+     * Returns the class of the bound objects.
+     *
+     * @return the target class.
+     */
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the compiled column layout. Ignored columns are {@code null}.
+     *
+     * @return the column names.
+     */
+    public String[] getColumns() {
+        String[] names = new String[this.columns.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = this.columns[i] == null ? null : this.columns[i].name;
+        }
+        return names;
+    }
+
+    /**
+     * Binds a row to a new object.
+     *
+     * @param row the row values, indexed by the column layout.
+     * @return the new object.
+     * @throws BindingException if the object cannot be created or a value cannot
+     *                          be set.
+     */
+    public T bind(Object[] row) throws BindingException {
+        return this.bindRow(row, -1);
+    }
+
+    /**
+     * Binds a row to a new object.
+     *
+     * @param row the row values, keyed by the column names.
+     * @return the new object.
+     * @throws BindingException if the object cannot be created or a value cannot
+     *                          be set.
+     */
+    public T bind(Map<String, ?> row) throws BindingException {
+        return this.bindRow(row, -1);
+    }
+
+    /**
+     * Binds a row to an existing object.
+     *
+     * @param target the object to set the values for.
+     * @param row    the row values, indexed by the column layout.
+     * @throws BindingException if a value cannot be set.
+     */
+    public void bindInto(T target, Object[] row) throws BindingException {
+        this.fill(target, row, -1);
+    }
+
+    /**
+     * Binds a row to an existing object.
+     *
+     * @param target the object to set the values for.
+     * @param row    the row values, keyed by the column names.
+     * @throws BindingException if a value cannot be set.
+     */
+    public void bindInto(T target, Map<String, ?> row) throws BindingException {
+        this.fill(target, row, -1);
+    }
+
+    /**
+     * Binds a batch of rows to new objects.
+     *
+     * @param rows the rows, each indexed by the column layout.
+     * @return the new objects, in the order of the rows.
+     * @throws BindingException if a row cannot be bound.
+     */
+    public List<T> bindAll(List<? extends Object[]> rows) throws BindingException {
+        return this.bindBatch(rows.size(), index -> this.bindRow(rows.get(index), index));
+    }
+
+    /**
+     * Binds a batch of rows to new objects.
+     *
+     * @param rows the rows, each keyed by the column names.
+     * @return the new objects, in the order of the rows.
+     * @throws BindingException if a row cannot be bound.
+     */
+    public List<T> bindAllMaps(List<? extends Map<String, ?>> rows) throws BindingException {
+        return this.bindBatch(rows.size(), index -> this.bindRow(rows.get(index), index));
+    }
+
+    private T bindRow(Object[] row, int index) throws BindingException {
+        T target = this.newInstance(index);
+        this.fill(target, row, index);
+        return target;
+    }
+
+    private T bindRow(Map<String, ?> row, int index) throws BindingException {
+        T target = this.newInstance(index);
+        this.fill(target, row, index);
+        return target;
+    }
+
+    private void fill(T target, Object[] row, int index) throws BindingException {
+        long start = HelperMetrics.start();
+        int length = Math.min(row.length, this.columns.length);
+        for (int i = 0; i < length; i++) {
+            Column column = this.columns[i];
+            if (column != null && row[i] != null) {
+                column.set(target, row[i], index);
+            }
+        }
+        HelperMetrics.recordBind(this.type, start);
+    }
+
+    private void fill(T target, Map<String, ?> row, int index) throws BindingException {
+        long start = HelperMetrics.start();
+        for (Column column : this.columns) {
+            if (column != null) {
+                Object value = row.get(column.name);
+                if (value != null) {
+                    column.set(target, value, index);
+                }
+            }
+        }
+        HelperMetrics.recordBind(this.type, start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newInstance(int index) throws BindingException {
+        try {
+            return (T) (Object) this.constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new BindingException(describe(index) + "cannot create a new " + this.type.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> bindBatch(int size, RowTask<T> task) throws BindingException {
+        Object[] results = new Object[size];
+        if (this.pool == null || size < this.parallelThreshold) {
+            for (int i = 0; i < size; i++) {
+                results[i] = task.bind(i);
+            }
+        } else {
+            try {
+                this.pool.invoke(new BatchAction<>(task, results, 0, size, this.parallelThreshold));
+            } catch (UncheckedBindingException e) {
+                throw e.getCause();
+            }
+        }
+        return (List<T>) Arrays.asList(results);
+    }
+
+    private static String describe(int index) {
+        return index < 0 ? "" : "Row " + index + ": ";
+    }
+
+    /*
+     * The instance fields of the class and its superclasses, the superclass ones
+     * first.
+     */
+    static List<Field> getFields(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /*
+     * The instance field of the class (or its superclasses) matching the given
+     * name, as is or in camelCase.
+     */
+    static Field findField(Class<?> type, String name) {
+        Field field = findField(type, name, false);
+        // A snake_case or kebab-case column matches the camelCase field
+        return field != null ? field : findField(type, NamingStrategy.CAMEL_CASE.apply(name), true);
+    }
+
+    private static Field findField(Class<?> type, String name, boolean normalized) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                String fieldName = normalized ? NamingStrategy.CAMEL_CASE.apply(field.getName()) : field.getName();
+                if (fieldName.equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * A compiled column: the field setter and the converter of the field.
+     */
+    private static final class Column {
+
+        private final String name;
+        private final FieldAccessor accessor;
+        private final FieldConverter converter;
+
+        private Column(String name, FieldAccessor accessor, FieldConverter converter) {
+            this.name = name;
+            this.accessor = accessor;
+            this.converter = converter;
+        }
+
+        private void set(Object target, Object value, int index) throws BindingException {
+            try {
+                this.accessor.set(target, this.converter.convert(value));
+            } catch (InvocationTargetException e) {
+                throw new BindingException(describe(index) + "cannot set the `" + this.name + "` column",
+                        e.getCause());
+            } catch (Exception e) {
+                throw new BindingException(describe(index) + "cannot set the `" + this.name + "` column", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowTask<T> {
+        T bind(int index) throws BindingException;
+    }
+
+    private static final class BatchAction<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient RowTask<T> task;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private BatchAction(RowTask<T> task, Object[] results, int from, int to, int threshold) {
+            this.task = task;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.threshold) {
+                try {
+                    for (int i = this.from; i < this.to; i++) {
+                        this.results[i] = this.task.bind(i);
+                    }
+                } catch (BindingException e) {
+                    throw new UncheckedBindingException(e);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new BatchAction<>(this.task, this.results, this.from, middle, this.threshold),
+                    new BatchAction<>(this.task, this.results, middle, this.to, this.threshold));
+        }
+    }
+}
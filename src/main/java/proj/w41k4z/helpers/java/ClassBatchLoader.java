@@ -0,0 +1,154 @@
+package proj.w41k4z.helpers.java;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import proj.w41k4z.helpers.FileHelper;
+
+/**
+ * The {@code ClassBatchLoader} class loads many classes at once (a compiled
+ * classes directory, a plugin directory, a set of {@code JavaFile}s) through a
+ * single reused class loader, spreading the loading across a bounded thread
+ * pool. The classes are not initialized: their static initializers run on
+ * their first real use, not while they are registered.
+ * <p>
+ * Each class is returned as a future completed once it is loaded, so the
+ * caller does not wait for the whole batch.
+ */
+public class ClassBatchLoader implements AutoCloseable {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final ClassLoader classLoader;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a batch loader loading the classes with the given class loader.
+     *
+     * @param classLoader the class loader to load the classes with.
+     * @param parallelism the maximum number of classes loaded at the same time.
+     */
+    public ClassBatchLoader(ClassLoader classLoader, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        this.classLoader = classLoader;
+        String prefix = "class-batch-loader-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    /**
+     * Creates a batch loader for a compiled classes directory, loading its
+     * classes with a new class loader (child of the context class loader).
+     *
+     * @param classesRoot the root of the compiled classes (the package root).
+     * @param parallelism the maximum number of classes loaded at the same time.
+     * @return the batch loader.
+     * @throws IOException if the directory path cannot be converted to an URL.
+     */
+    public static ClassBatchLoader forDirectory(Path classesRoot, int parallelism) throws IOException {
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classesRoot.toUri().toURL() },
+                Thread.currentThread().getContextClassLoader());
+        return new ClassBatchLoader(classLoader, parallelism);
+    }
+
+    /**
+     * Returns the class loader used to load the classes.
+     *
+     * @return the class loader.
+     */
+    public ClassLoader getClassLoader() {
+        return this.classLoader;
+    }
+
+    /**
+     * Loads, without initializing it, the class of the given binary name.
+     *
+     * @param binaryName the binary name of the class.
+     * @return the future class, failed with a {@code ClassNotFoundException} (or a
+     *         {@code LinkageError}) if it cannot be loaded.
+     */
+    public CompletableFuture<Class<?>> load(String binaryName) {
+        CompletableFuture<Class<?>> future = new CompletableFuture<>();
+        this.executor.execute(() -> {
+            try {
+                future.complete(Class.forName(binaryName, false, this.classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Loads, without initializing them, all the classes of a directory. Both
+     * {@code .class} and {@code .java} files are taken, named after their path
+     * relative to the directory.
+     *
+     * @param root the package root directory.
+     * @return the future classes, by binary name.
+     * @throws IOException if the directory cannot be read.
+     */
+    public Map<String, CompletableFuture<Class<?>>> loadAll(Path root) throws IOException {
+        Map<String, CompletableFuture<Class<?>>> classes = new LinkedHashMap<>();
+        try (Stream<Path> files = FileHelper.streamSubFiles(root, Integer.MAX_VALUE,
+                path -> isClassSource(path.getFileName().toString()))) {
+            files.forEach(file -> {
+                String binaryName = JavaFile.toBinaryName(root.relativize(file).toString());
+                classes.computeIfAbsent(binaryName, this::load);
+            });
+        }
+        return classes;
+    }
+
+    /**
+     * Loads, without initializing them, the classes of the given java files.
+     *
+     * @param files        the java files.
+     * @param pathToRemove the path to remove from the file paths (the path to the
+     *                     src or classes folder).
+     * @return the future classes, by binary name.
+     */
+    public Map<String, CompletableFuture<Class<?>>> loadAll(Collection<JavaFile> files, String pathToRemove) {
+        Map<String, CompletableFuture<Class<?>>> classes = new LinkedHashMap<>();
+        for (JavaFile file : files) {
+            classes.computeIfAbsent(file.getBinaryName(pathToRemove), this::load);
+        }
+        return classes;
+    }
+
+    /**
+     * Stops the loading threads once the pending classes are loaded. The class
+     * loader is kept open so the loaded classes can still load their
+     * dependencies.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+    }
+
+    /*
+     * The module-info and package-info files do not declare a loadable class.
+     */
+    private static boolean isClassSource(String fileName) {
+        String name = fileName.toLowerCase();
+        return (name.endsWith(".class") || name.endsWith(".java")) && name.indexOf('-') < 0;
+    }
+}
@@ -0,0 +1,221 @@
+package proj.w41k4z.helpers.java;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import proj.w41k4z.helpers.exception.JavaFileException;
+
+/**
+ * The {@code ClassFileReader} class reads the runtime visible annotations of a
+ * compiled class (and of its fields and methods) straight from its
+ * {@code .class} bytes, without loading the class.
+ */
+final class ClassFileReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String ANNOTATIONS_ATTRIBUTE = "RuntimeVisibleAnnotations";
+
+    private final ByteBuffer bytes;
+    private String[] utf8;
+    private int[] classNameIndexes;
+
+    private ClassFileReader(byte[] bytes) {
+        this.bytes = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Reads the annotations of a compiled class.
+     *
+     * @param bytes the content of the {@code .class} file.
+     * @return the annotations of the class and of its members.
+     * @throws JavaFileException if the bytes are not a valid class file.
+     */
+    static AnnotationIndex.ClassEntry read(byte[] bytes) throws JavaFileException {
+        try {
+            return new ClassFileReader(bytes).readClass();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new JavaFileException("Truncated or corrupted class file");
+        }
+    }
+
+    private AnnotationIndex.ClassEntry readClass() throws JavaFileException {
+        if (this.bytes.getInt() != MAGIC) {
+            throw new JavaFileException("This is not a compiled java class");
+        }
+        // minor and major versions
+        this.skip(4);
+        this.readConstantPool();
+        // access flags
+        this.skip(2);
+        String name = this.className(this.u2());
+        // super class
+        this.skip(2);
+        this.skip(2 * this.u2());
+        List<AnnotationIndex.MemberEntry> fields = this.readMembers();
+        List<AnnotationIndex.MemberEntry> methods = this.readMembers();
+        List<String> annotations = this.readAttributes();
+        return new AnnotationIndex.ClassEntry(name, annotations, fields, methods);
+    }
+
+    private void readConstantPool() throws JavaFileException {
+        int count = this.u2();
+        this.utf8 = new String[count];
+        this.classNameIndexes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = this.bytes.get() & 0xFF;
+            switch (tag) {
+                case 1: // Utf8
+                    int length = this.u2();
+                    this.utf8[i] = decode(this.bytes, length);
+                    break;
+                case 7: // Class
+                    this.classNameIndexes[i] = this.u2();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    this.skip(2);
+                    break;
+                case 15: // MethodHandle
+                    this.skip(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    this.skip(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    this.skip(8);
+                    // takes two entries
+                    i++;
+                    break;
+                default:
+                    throw new JavaFileException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private List<AnnotationIndex.MemberEntry> readMembers() {
+        int count = this.u2();
+        List<AnnotationIndex.MemberEntry> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // access flags
+            this.skip(2);
+            String name = this.utf8[this.u2()];
+            String descriptor = this.utf8[this.u2()];
+            List<String> annotations = this.readAttributes();
+            if (!annotations.isEmpty()) {
+                members.add(new AnnotationIndex.MemberEntry(name, descriptor, annotations));
+            }
+        }
+        return members;
+    }
+
+    private List<String> readAttributes() {
+        int count = this.u2();
+        List<String> annotations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = this.utf8[this.u2()];
+            int length = this.bytes.getInt();
+            if (ANNOTATIONS_ATTRIBUTE.equals(name)) {
+                int end = this.bytes.position() + length;
+                int annotationCount = this.u2();
+                for (int j = 0; j < annotationCount; j++) {
+                    annotations.add(this.readAnnotation());
+                }
+                this.bytes.position(end);
+            } else {
+                this.skip(length);
+            }
+        }
+        return annotations;
+    }
+
+    private String readAnnotation() {
+        String type = descriptorToName(this.utf8[this.u2()]);
+        int pairs = this.u2();
+        for (int i = 0; i < pairs; i++) {
+            // element name
+            this.skip(2);
+            this.skipElementValue();
+        }
+        return type;
+    }
+
+    private void skipElementValue() {
+        char tag = (char) (this.bytes.get() & 0xFF);
+        switch (tag) {
+            case 'e':
+                this.skip(4);
+                break;
+            case '@':
+                this.readAnnotation();
+                break;
+            case '[':
+                int count = this.u2();
+                for (int i = 0; i < count; i++) {
+                    this.skipElementValue();
+                }
+                break;
+            default:
+                // B C D F I J S Z s c: a constant pool index
+                this.skip(2);
+        }
+    }
+
+    private String className(int classIndex) {
+        return this.utf8[this.classNameIndexes[classIndex]].replace('/', '.');
+    }
+
+    private int u2() {
+        return this.bytes.getShort() & 0xFFFF;
+    }
+
+    private void skip(int length) {
+        this.bytes.position(this.bytes.position() + length);
+    }
+
+    private static String descriptorToName(String descriptor) {
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    /*
+     * Decodes a modified UTF-8 constant (as written by DataOutput.writeUTF).
+     */
+    private static String decode(ByteBuffer bytes, int length) {
+        int start = bytes.position();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = bytes.get(start + i) > 0;
+        }
+        if (ascii) {
+            String value = new String(bytes.array(), start, length, StandardCharsets.ISO_8859_1);
+            bytes.position(start + length);
+            return value;
+        }
+        char[] chars = new char[length];
+        int count = 0;
+        int end = start + length;
+        while (bytes.position() < end) {
+            int c = bytes.get() & 0xFF;
+            if (c < 0x80) {
+                chars[count++] = (char) c;
+            } else if ((c & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((c & 0x1F) << 6) | (bytes.get() & 0x3F));
+            } else {
+                chars[count++] = (char) (((c & 0x0F) << 12) | ((bytes.get() & 0x3F) << 6) | (bytes.get() & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+}
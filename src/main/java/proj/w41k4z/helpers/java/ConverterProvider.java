@@ -0,0 +1,37 @@
+package proj.w41k4z.helpers.java;
+
+/**
+ * The {@code ConverterProvider} interface is the service provider interface of
+ * the {@link ConverterRegistry}: the implementations listed in a
+ * {@code META-INF/services/proj.w41k4z.helpers.java.ConverterProvider} file
+ * register their converters when the registry is first used, after the
+ * built-in ones (so they can replace them).
+ */
+public interface ConverterProvider {
+
+    /**
+     * Registers the converters of this provider.
+     *
+     * @param registrar the registrar to register the converters with.
+     */
+    void registerConverters(Registrar registrar);
+
+    /**
+     * The {@code Registrar} interface registers a converter in the registry.
+     */
+    @FunctionalInterface
+    interface Registrar {
+
+        /**
+         * Registers a converter.
+         *
+         * @param <S>        the source type.
+         * @param <T>        the target type.
+         * @param sourceType the source type (the converter also applies to its
+         *                   subtypes).
+         * @param targetType the target type.
+         * @param converter  the converter.
+         */
+        <S, T> void register(Class<S> sourceType, Class<T> targetType, TypeConverter<? super S, ? extends T> converter);
+    }
+}
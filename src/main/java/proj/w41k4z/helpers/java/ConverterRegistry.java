@@ -0,0 +1,282 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code ConverterRegistry} class holds the {@link TypeConverter}s used to
+ * bind raw values to fields. The converter of a (source type, target type) pair
+ * is resolved once, then cached:
+ * <ol>
+ * <li>the identity if the value already has the target type,</li>
+ * <li>a registered converter of the source type or of one of its supertypes
+ * (the built-in ones, the {@link ConverterProvider}s and the ones given to
+ * {@link #register(Class, Class, TypeConverter)}),</li>
+ * <li>the primitive (and primitive wrapper) parsing, {@code String.valueOf} for
+ * a string and the constant name (or ordinal) for an enum,</li>
+ * <li>the public {@code String} constructor of the target type.</li>
+ * </ol>
+ * The built-in converters cover {@code BigDecimal}, {@code BigInteger},
+ * {@code UUID} and the {@code java.time} types (parsed from character
+ * sequences or converted from and to the {@code java.sql} temporal types).
+ */
+public final class ConverterRegistry {
+
+    private static final TypeConverter<Object, Object> IDENTITY = value -> value;
+    // Cached when no converter exists for a pair, never returned
+    private static final TypeConverter<Object, Object> NONE = value -> {
+        throw new IllegalStateException("No converter");
+    };
+
+    private static final ConcurrentMap<Class<?>, Map<Class<?>, TypeConverter<?, ?>>> REGISTERED = new ConcurrentHashMap<>();
+    private static volatile ClassValue<ConcurrentMap<Class<?>, TypeConverter<?, ?>>> resolved = newCache();
+
+    static {
+        registerBuiltIns();
+        for (ConverterProvider provider : ServiceLoader.load(ConverterProvider.class)) {
+            provider.registerConverters(ConverterRegistry::register);
+        }
+    }
+
+    private ConverterRegistry() {
+    }
+
+    /**
+     * Registers a converter, replacing the one registered for the same pair.
+     *
+     * @param <S>        the source type.
+     * @param <T>        the target type.
+     * @param sourceType the source type (the converter also applies to its
+     *                   subtypes).
+     * @param targetType the target type.
+     * @param converter  the converter.
+     */
+    public static <S, T> void register(Class<S> sourceType, Class<T> targetType,
+            TypeConverter<? super S, ? extends T> converter) {
+        REGISTERED.computeIfAbsent(sourceType, type -> new ConcurrentHashMap<>()).put(targetType, converter);
+        // The resolutions made before may have picked another converter
+        resolved = newCache();
+    }
+
+    /**
+     * Returns the converter from the given source type to the given target type.
+     *
+     * @param <S>        the source type.
+     * @param <T>        the target type.
+     * @param sourceType the source type.
+     * @param targetType the target type.
+     * @return the (cached) converter, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> TypeConverter<S, T> find(Class<S> sourceType, Class<T> targetType) {
+        ConcurrentMap<Class<?>, TypeConverter<?, ?>> converters = resolved.get(sourceType);
+        TypeConverter<?, ?> converter = converters.get(targetType);
+        HelperMetrics.recordCacheAccess("TypeConverter", converter != null);
+        if (converter == null) {
+            converter = resolve(sourceType, targetType);
+            TypeConverter<?, ?> existing = converters.putIfAbsent(targetType, converter);
+            if (existing != null) {
+                converter = existing;
+            }
+        }
+        return converter == NONE ? null : (TypeConverter<S, T>) converter;
+    }
+
+    /**
+     * Converts the given value to the given target type.
+     *
+     * @param <T>        the target type.
+     * @param value      the value to convert.
+     * @param targetType the target type.
+     * @return the converted value, null if the value is null.
+     * @throws IllegalArgumentException if there is no converter for the value
+     *                                  type or the value cannot be converted.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T convert(Object value, Class<T> targetType) {
+        if (value == null) {
+            return null;
+        }
+        TypeConverter<Object, T> converter = (TypeConverter<Object, T>) find(value.getClass(), targetType);
+        if (converter == null) {
+            throw new IllegalArgumentException(
+                    "No converter from " + value.getClass().getName() + " to " + targetType.getName());
+        }
+        return converter.convert(value);
+    }
+
+    private static ClassValue<ConcurrentMap<Class<?>, TypeConverter<?, ?>>> newCache() {
+        return new ClassValue<>() {
+            @Override
+            protected ConcurrentMap<Class<?>, TypeConverter<?, ?>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    private static TypeConverter<?, ?> resolve(Class<?> sourceType, Class<?> targetType) {
+        if (targetType.isAssignableFrom(sourceType)
+                || (targetType.isPrimitive() && PrimitiveConverter.wrapperOf(targetType) == sourceType)) {
+            return IDENTITY;
+        }
+        TypeConverter<?, ?> registered = findRegistered(sourceType, targetType);
+        if (registered != null) {
+            return registered;
+        }
+        if (PrimitiveConverter.supports(targetType)) {
+            Class<?> primitive = targetType.isPrimitive() ? targetType : PrimitiveConverter.primitiveOf(targetType);
+            return value -> PrimitiveConverter.convertValue(primitive, value);
+        }
+        if (targetType == String.class) {
+            return String::valueOf;
+        }
+        if (targetType.isEnum()) {
+            return enumConverter(sourceType, targetType);
+        }
+        MethodHandle constructor = findStringConstructor(targetType);
+        if (constructor != null) {
+            return value -> newInstance(constructor, targetType, value.toString());
+        }
+        return NONE;
+    }
+
+    /*
+     * Looks for the source type then its supertypes, the nearest first.
+     */
+    private static TypeConverter<?, ?> findRegistered(Class<?> sourceType, Class<?> targetType) {
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        pending.add(sourceType);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            Map<Class<?>, TypeConverter<?, ?>> converters = REGISTERED.get(type);
+            TypeConverter<?, ?> converter = converters == null ? null : converters.get(targetType);
+            if (converter != null) {
+                return converter;
+            }
+            if (type.getSuperclass() != null) {
+                pending.add(type.getSuperclass());
+            }
+            pending.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return null;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static TypeConverter<?, ?> enumConverter(Class<?> sourceType, Class<?> targetType) {
+        if (CharSequence.class.isAssignableFrom(sourceType)) {
+            return value -> Enum.valueOf((Class<? extends Enum>) targetType, value.toString());
+        }
+        if (Number.class.isAssignableFrom(sourceType)) {
+            Object[] constants = targetType.getEnumConstants();
+            return value -> {
+                int ordinal = ((Number) value).intValue();
+                if (ordinal < 0 || ordinal >= constants.length) {
+                    throw new IllegalArgumentException(
+                            "No " + targetType.getSimpleName() + " constant at ordinal " + ordinal);
+                }
+                return constants[ordinal];
+            };
+        }
+        return NONE;
+    }
+
+    private static MethodHandle findStringConstructor(Class<?> type) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class, String.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static Object newInstance(MethodHandle constructor, Class<?> type, String value) {
+        try {
+            return constructor.invoke(value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot convert \"" + value + "\" to " + type.getName(), e);
+        }
+    }
+
+    private static void registerBuiltIns() {
+        register(CharSequence.class, BigDecimal.class, value -> new BigDecimal(value.toString()));
+        register(Number.class, BigDecimal.class, ConverterRegistry::toBigDecimal);
+        register(CharSequence.class, BigInteger.class, value -> new BigInteger(value.toString()));
+        register(Number.class, BigInteger.class, value -> {
+            try {
+                return toBigDecimal(value).toBigIntegerExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Not an integer: " + value, e);
+            }
+        });
+        register(CharSequence.class, UUID.class, value -> UUID.fromString(value.toString()));
+        register(CharSequence.class, Instant.class, Instant::parse);
+        register(CharSequence.class, LocalDate.class, LocalDate::parse);
+        register(CharSequence.class, LocalDateTime.class, LocalDateTime::parse);
+        register(CharSequence.class, LocalTime.class, LocalTime::parse);
+        register(CharSequence.class, OffsetDateTime.class, OffsetDateTime::parse);
+        register(CharSequence.class, OffsetTime.class, OffsetTime::parse);
+        register(CharSequence.class, ZonedDateTime.class, ZonedDateTime::parse);
+        register(CharSequence.class, Duration.class, Duration::parse);
+        register(CharSequence.class, Period.class, Period::parse);
+        register(CharSequence.class, Year.class, Year::parse);
+        register(CharSequence.class, YearMonth.class, YearMonth::parse);
+        register(CharSequence.class, MonthDay.class, MonthDay::parse);
+        register(CharSequence.class, ZoneId.class, value -> ZoneId.of(value.toString()));
+        // java.sql.Date and java.sql.Time do not support toInstant
+        register(java.util.Date.class, Instant.class, value -> Instant.ofEpochMilli(value.getTime()));
+        register(java.sql.Timestamp.class, Instant.class, java.sql.Timestamp::toInstant);
+        register(java.sql.Date.class, LocalDate.class, java.sql.Date::toLocalDate);
+        register(java.sql.Timestamp.class, LocalDateTime.class, java.sql.Timestamp::toLocalDateTime);
+        register(java.sql.Time.class, LocalTime.class, java.sql.Time::toLocalTime);
+        register(Instant.class, java.util.Date.class, java.util.Date::from);
+        register(Instant.class, java.sql.Timestamp.class, java.sql.Timestamp::from);
+        register(LocalDate.class, java.sql.Date.class, java.sql.Date::valueOf);
+        register(LocalDateTime.class, java.sql.Timestamp.class, java.sql.Timestamp::valueOf);
+        register(LocalTime.class, java.sql.Time.class, java.sql.Time::valueOf);
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return BigDecimal.valueOf(value.longValue());
+        }
+        return BigDecimal.valueOf(value.doubleValue());
+    }
+}
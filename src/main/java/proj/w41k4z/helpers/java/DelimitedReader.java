@@ -0,0 +1,543 @@
+package proj.w41k4z.helpers.java;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import proj.w41k4z.helpers.exception.BindingException;
+import proj.w41k4z.helpers.exception.UncheckedBindingException;
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code DelimitedReader} class imports a delimited file (CSV, TSV, ...)
+ * into objects of a given class. The file is memory-mapped and cut into chunks
+ * on record boundaries, the chunks being parsed independently so the import
+ * can use every core. Each record is bound through a {@link Binder} compiled
+ * once for the column layout (so the {@code @TemporalPattern} fields are parsed
+ * with their patterns).
+ * <p>
+ * The fields can be quoted (a doubled quote being a quote) but a record cannot
+ * span several lines. An empty unquoted field leaves the field to its default
+ * value. The charset must encode the delimiter, the quote and the line breaks
+ * as single ASCII bytes (UTF-8, ISO-8859-1, ...).
+ *
+ * @param <T> the type of the objects to bind the records to.
+ */
+public class DelimitedReader<T> {
+
+    /**
+     * The default size of the chunks the file is cut into (32 MB).
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 32 * 1024 * 1024;
+
+    private static final int BOUNDARY_WINDOW = 64 * 1024;
+
+    private final Class<T> type;
+    private final Path file;
+    private final char delimiter;
+    private final char quote;
+    private final String[] columns;
+    private final Charset charset;
+    private final int chunkSize;
+
+    private DelimitedReader(Class<T> type, Path file, char delimiter, char quote, String[] columns, Charset charset,
+            int chunkSize) {
+        this.type = type;
+        this.file = file;
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.columns = columns;
+        this.charset = charset;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a reader of a comma separated UTF-8 file whose first line holds the
+     * column names.
+     *
+     * @param <T>  the type of the objects to bind the records to.
+     * @param type the class of the objects to bind the records to.
+     * @param file the file to read.
+     * @return the reader.
+     */
+    public static <T> DelimitedReader<T> of(Class<T> type, Path file) {
+        return new DelimitedReader<>(type, file, ',', '"', null, StandardCharsets.UTF_8, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns a reader with the given field delimiter.
+     *
+     * @param delimiter the ASCII field delimiter.
+     * @return the new reader.
+     */
+    public DelimitedReader<T> withDelimiter(char delimiter) {
+        checkAscii(delimiter, "delimiter");
+        return new DelimitedReader<>(this.type, this.file, delimiter, this.quote, this.columns, this.charset,
+                this.chunkSize);
+    }
+
+    /**
+     * Returns a reader with the given quote character.
+     *
+     * @param quote the ASCII quote character, {@code '\0'} for none.
+     * @return the new reader.
+     */
+    public DelimitedReader<T> withQuote(char quote) {
+        checkAscii(quote, "quote");
+        return new DelimitedReader<>(this.type, this.file, this.delimiter, quote, this.columns, this.charset,
+                this.chunkSize);
+    }
+
+    /**
+     * Returns a reader of a file without header line, having the given column
+     * layout.
+     *
+     * @param columns the column names (matched as by {@link Binder#of}).
+     * @return the new reader.
+     */
+    public DelimitedReader<T> withColumns(String... columns) {
+        return new DelimitedReader<>(this.type, this.file, this.delimiter, this.quote, columns.clone(), this.charset,
+                this.chunkSize);
+    }
+
+    /**
+     * Returns a reader decoding the file with the given charset.
+     *
+     * @param charset the charset of the file.
+     * @return the new reader.
+     */
+    public DelimitedReader<T> withCharset(Charset charset) {
+        return new DelimitedReader<>(this.type, this.file, this.delimiter, this.quote, this.columns, charset,
+                this.chunkSize);
+    }
+
+    /**
+     * Returns a reader cutting the file into chunks of the given size.
+     *
+     * @param chunkSize the approximate chunk size, in bytes.
+     * @return the new reader.
+     */
+    public DelimitedReader<T> withChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+        return new DelimitedReader<>(this.type, this.file, this.delimiter, this.quote, this.columns, this.charset,
+                chunkSize);
+    }
+
+    /**
+     * Returns a lazy stream of the bound records, in file order. The stream is
+     * sequential; once made parallel, the chunks are parsed concurrently. The
+     * file stays open until the stream is closed.
+     *
+     * @return the stream of the records. A record which cannot be bound throws
+     *         an {@code UncheckedBindingException}, a read failure an
+     *         {@code UncheckedIOException}.
+     * @throws IOException      if the file cannot be opened or its header cannot
+     *                          be read.
+     * @throws BindingException if the binder cannot be compiled for the columns.
+     */
+    public Stream<T> stream() throws IOException, BindingException {
+        Plan<T> plan = this.plan();
+        return StreamSupport.stream(new ChunkSpliterator<>(plan, 0, plan.chunks.length), false)
+                .onClose(plan::close);
+    }
+
+    /**
+     * Reads the whole file, handing the bound records to the consumer by batches
+     * in file order. The chunks are parsed by the given number of threads while
+     * the consumer runs on the calling thread; at most two chunks per thread are
+     * parsed ahead of the consumer.
+     *
+     * @param batchSize   the number of records per batch (the last batch may be
+     *                    smaller).
+     * @param parallelism the number of parsing threads.
+     * @param consumer    the consumer of the batches.
+     * @return the number of records read.
+     * @throws IOException      if the file cannot be read.
+     * @throws BindingException if a record cannot be bound.
+     */
+    public long forEachBatch(int batchSize, int parallelism, Consumer<? super List<T>> consumer)
+            throws IOException, BindingException {
+        if (batchSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("The batch size and the parallelism must be positive");
+        }
+        long start = HelperMetrics.start();
+        long count = 0;
+        try (Plan<T> plan = this.plan()) {
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "delimited-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Deque<Future<List<T>>> pending = new ArrayDeque<>();
+            List<T> batch = new ArrayList<>(batchSize);
+            try {
+                int next = 0;
+                while (next < plan.chunks.length || !pending.isEmpty()) {
+                    while (next < plan.chunks.length && pending.size() < parallelism * 2) {
+                        int chunk = next++;
+                        pending.add(executor.submit(() -> {
+                            List<T> records = new ArrayList<>();
+                            new ChunkSpliterator<>(plan, chunk, chunk + 1).forEachRemaining(records::add);
+                            return records;
+                        }));
+                    }
+                    for (T record : await(pending.poll())) {
+                        batch.add(record);
+                        if (batch.size() == batchSize) {
+                            consumer.accept(batch);
+                            count += batchSize;
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    consumer.accept(batch);
+                    count += batch.size();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        HelperMetrics.recordFileOperation("readDelimited", start, count);
+        return count;
+    }
+
+    private static <T> List<T> await(Future<List<T>> future) throws IOException, BindingException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading the file");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedBindingException) {
+                throw ((UncheckedBindingException) cause).getCause();
+            } else if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    /*
+     * Opens the file, reads the header and cuts the records into chunks.
+     */
+    private Plan<T> plan() throws IOException, BindingException {
+        FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long dataStart = 0;
+            String[] layout = this.columns;
+            if (layout == null) {
+                dataStart = nextLine(channel, 0, size);
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, dataStart);
+                layout = new RecordParser(this, header).parseHeader((int) dataStart);
+            }
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(dataStart);
+            for (long start = dataStart; start < size;) {
+                long end = start + this.chunkSize >= size ? size : nextLine(channel, start + this.chunkSize, size);
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("Record too large near offset " + start);
+                }
+                bounds.add(end);
+                start = end;
+            }
+            long[] chunks = new long[bounds.size()];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = bounds.get(i);
+            }
+            Binder<T> binder;
+            try {
+                binder = Binder.of(this.type, layout);
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                throw new BindingException("cannot bind the columns to " + this.type.getName(), e);
+            }
+            return new Plan<>(this, channel, binder, layout.length, Arrays.copyOf(chunks, chunks.length - 1),
+                    chunks[chunks.length - 1]);
+        } catch (IOException | BindingException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * Returns the offset following the first line break at or after the given
+     * offset (or the file size).
+     */
+    private static long nextLine(FileChannel channel, long from, long size) throws IOException {
+        for (long position = from; position < size; position += BOUNDARY_WINDOW) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(BOUNDARY_WINDOW, size - position));
+            for (int i = 0; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static void checkAscii(char c, String name) {
+        if (c > 0x7F) {
+            throw new IllegalArgumentException("The " + name + " must be an ASCII character");
+        }
+    }
+
+    /*
+     * The opened file, its chunks (start offsets, the last one ending at end)
+     * and the compiled binder.
+     */
+    private static final class Plan<T> implements AutoCloseable {
+
+        private final DelimitedReader<T> reader;
+        private final FileChannel channel;
+        private final Binder<T> binder;
+        private final int columnCount;
+        private final long[] chunks;
+        private final long end;
+
+        private Plan(DelimitedReader<T> reader, FileChannel channel, Binder<T> binder, int columnCount,
+                long[] chunks, long end) {
+            this.reader = reader;
+            this.channel = channel;
+            this.binder = binder;
+            this.columnCount = columnCount;
+            this.chunks = chunks;
+            this.end = end;
+        }
+
+        private ByteBuffer map(int chunk) {
+            long start = this.chunks[chunk];
+            long stop = chunk + 1 < this.chunks.length ? this.chunks[chunk + 1] : this.end;
+            try {
+                return this.channel.map(FileChannel.MapMode.READ_ONLY, start, stop - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /*
+     * Parses and binds the records of a range of chunks, one after the other.
+     */
+    private static final class ChunkSpliterator<T> implements Spliterator<T> {
+
+        private final Plan<T> plan;
+        private int from;
+        private final int to;
+        private RecordParser parser;
+        private int position;
+        private Object[] row;
+
+        private ChunkSpliterator(Plan<T> plan, int from, int to) {
+            this.plan = plan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (true) {
+                if (this.parser == null) {
+                    if (this.from >= this.to) {
+                        return false;
+                    }
+                    this.parser = new RecordParser(this.plan.reader, this.plan.map(this.from++));
+                    this.position = 0;
+                    if (this.row == null) {
+                        this.row = new Object[this.plan.columnCount];
+                    }
+                }
+                int limit = this.parser.buffer.limit();
+                if (this.position >= limit) {
+                    this.parser = null;
+                    continue;
+                }
+                Arrays.fill(this.row, null);
+                int start = this.position;
+                this.position = this.parser.parse(start, limit, this.row);
+                if (this.parser.isBlank(start, this.position)) {
+                    continue;
+                }
+                try {
+                    action.accept(this.plan.binder.bind(this.row));
+                } catch (BindingException e) {
+                    throw new UncheckedBindingException(e);
+                }
+                return true;
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int remaining = this.to - this.from;
+            if (remaining < 2) {
+                return null;
+            }
+            // The prefix (including the chunk being parsed) goes to the new spliterator
+            int middle = this.from + remaining / 2;
+            ChunkSpliterator<T> prefix = new ChunkSpliterator<>(this.plan, this.from, middle);
+            prefix.parser = this.parser;
+            prefix.position = this.position;
+            prefix.row = this.row;
+            this.parser = null;
+            this.row = null;
+            this.from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL;
+        }
+    }
+
+    /*
+     * Splits the records of a mapped chunk into fields.
+     */
+    private static final class RecordParser {
+
+        private final ByteBuffer buffer;
+        private final ByteBuffer view;
+        private final Charset charset;
+        private final byte delimiter;
+        private final byte quote;
+        private final boolean quoted;
+        private byte[] scratch = new byte[256];
+        private int columnCount;
+
+        private RecordParser(DelimitedReader<?> reader, ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.view = buffer.duplicate();
+            this.charset = reader.charset;
+            this.delimiter = (byte) reader.delimiter;
+            this.quote = (byte) reader.quote;
+            this.quoted = reader.quote != '\0';
+        }
+
+        /*
+         * Parses the record starting at the given offset into the row (extra
+         * fields are ignored) and returns the offset of the next record.
+         */
+        private int parse(int position, int limit, Object[] row) {
+            int column = 0;
+            while (true) {
+                String value;
+                if (this.quoted && position < limit && this.buffer.get(position) == this.quote) {
+                    int length = 0;
+                    position++;
+                    while (position < limit) {
+                        byte b = this.buffer.get(position++);
+                        if (b == this.quote) {
+                            if (position < limit && this.buffer.get(position) == this.quote) {
+                                position++;
+                            } else {
+                                break;
+                            }
+                        }
+                        this.ensureScratch(length + 1);
+                        this.scratch[length++] = b;
+                    }
+                    value = new String(this.scratch, 0, length, this.charset);
+                    // Ignores what follows the closing quote
+                    while (position < limit && !this.isFieldEnd(this.buffer.get(position))) {
+                        position++;
+                    }
+                } else {
+                    int start = position;
+                    while (position < limit && !this.isFieldEnd(this.buffer.get(position))) {
+                        position++;
+                    }
+                    int end = position > start && this.buffer.get(position - 1) == '\r' ? position - 1 : position;
+                    value = end == start ? null : this.decode(start, end - start);
+                }
+                if (column < row.length) {
+                    row[column] = value;
+                }
+                column++;
+                if (position >= limit || this.buffer.get(position) == '\n') {
+                    this.columnCount = column;
+                    return position + 1;
+                }
+                // Skips the delimiter
+                position++;
+            }
+        }
+
+        /*
+         * Parses the header line, an empty name being a null (ignored) column.
+         */
+        private String[] parseHeader(int limit) {
+            Object[] row = new Object[limit + 1];
+            this.parse(0, limit, row);
+            return Arrays.copyOf(row, this.columnCount, String[].class);
+        }
+
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end && i < this.buffer.limit(); i++) {
+                byte b = this.buffer.get(i);
+                if (b != '\n' && b != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isFieldEnd(byte b) {
+            return b == this.delimiter || b == '\n';
+        }
+
+        private String decode(int start, int length) {
+            this.ensureScratch(length);
+            this.view.position(start);
+            this.view.get(this.scratch, 0, length);
+            return new String(this.scratch, 0, length, this.charset);
+        }
+
+        private void ensureScratch(int length) {
+            if (length > this.scratch.length) {
+                this.scratch = Arrays.copyOf(this.scratch, Math.max(length, this.scratch.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import proj.w41k4z.helpers.NamingStrategy;
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code FieldAccessor} class is a compiled getter/setter pair for a field
+ * of a given class. The accessor methods are resolved once (following the java
+ * naming convention) and turned into {@code MethodHandle}s so that subsequent
+ * calls do not need any reflective lookup.
+ * <p>
+ * Accessors are cached per target class through a {@code ClassValue}, which
+ * does not prevent the target class from being unloaded.
+ */
+public final class FieldAccessor {
+
+    private static final ClassValue<ConcurrentMap<String, FieldAccessor>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, FieldAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandle WRAP_TARGET_EXCEPTION;
+
+    static {
+        try {
+            WRAP_TARGET_EXCEPTION = MethodHandles.lookup().findStatic(FieldAccessor.class, "wrapTargetException",
+                    MethodType.methodType(void.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<?> targetClass;
+    private final String fieldName;
+    private final Class<?> fieldType;
+    private volatile MethodHandle getter;
+    private volatile MethodHandle setter;
+    // The accessors of the fields of the same name but of other types
+    private volatile ConcurrentMap<Class<?>, FieldAccessor> otherTypes;
+
+    private FieldAccessor(Class<?> targetClass, String fieldName, Class<?> fieldType) {
+        this.targetClass = targetClass;
+        this.fieldName = fieldName;
+        this.fieldType = fieldType;
+    }
+
+    /**
+     * Returns the accessor of the given field for the given target class.
+     *
+     * @param targetClass the class holding the getter and the setter.
+     * @param field       the field to access.
+     * @return the (cached) accessor of the field.
+     */
+    public static FieldAccessor of(Class<?> targetClass, Field field) {
+        ConcurrentMap<String, FieldAccessor> accessors = ACCESSORS.get(targetClass);
+        FieldAccessor accessor = accessors.get(field.getName());
+        HelperMetrics.recordCacheAccess("FieldAccessor", accessor != null);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(field.getName(),
+                    name -> new FieldAccessor(targetClass, name, field.getType()));
+        }
+        if (accessor.fieldType != field.getType()) {
+            // Same name but another type (a hidden field or a field taken from another class)
+            return accessor.ofType(field.getType());
+        }
+        return accessor;
+    }
+
+    private FieldAccessor ofType(Class<?> type) {
+        ConcurrentMap<Class<?>, FieldAccessor> accessors = this.otherTypes;
+        if (accessors == null) {
+            synchronized (this) {
+                accessors = this.otherTypes;
+                if (accessors == null) {
+                    accessors = new ConcurrentHashMap<>();
+                    this.otherTypes = accessors;
+                }
+            }
+        }
+        return accessors.computeIfAbsent(type, key -> new FieldAccessor(this.targetClass, this.fieldName, key));
+    }
+
+    /**
+     * Returns the class holding the accessor methods.
+     *
+     * @return the target class.
+     */
+    public Class<?> getTargetClass() {
+        return this.targetClass;
+    }
+
+    /**
+     * Returns the name of the accessed field.
+     *
+     * @return the field name.
+     */
+    public String getFieldName() {
+        return this.fieldName;
+    }
+
+    /**
+     * Returns the type of the accessed field.
+     *
+     * @return the field type.
+     */
+    public Class<?> getFieldType() {
+        return this.fieldType;
+    }
+
+    /**
+     * Invokes the field getter on the given object.
+     *
+     * @param object the object to get the field value from.
+     * @return the value returned by the getter.
+     * @throws NoSuchMethodException     if the field has no getter (following the
+     *                                   java naming convention)
+     * @throws IllegalAccessException    if the getter is not public
+     * @throws IllegalArgumentException  if the object is not an instance of the
+     *                                   target class
+     * @throws InvocationTargetException if the getter throws an exception
+     */
+    public Object get(Object object)
+            throws NoSuchMethodException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        if (object == null) {
+            throw new NullPointerException("The object to get the field value from cannot be null");
+        }
+        MethodHandle handle = this.getter;
+        if (handle == null) {
+            handle = this.getter = this.resolveGetter();
+        }
+        try {
+            return (Object) handle.invokeExact(object);
+        } catch (InvocationTargetException | Error e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("object is not an instance of " + this.targetClass.getName(), e);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Invokes the field setter on the given object.
+     *
+     * @param object the object to set the field value for.
+     * @param value  the parameter value for the setter.
+     * @throws NoSuchMethodException     if the field has no setter (following the
+     *                                   java naming convention)
+     * @throws IllegalAccessException    if the setter is not public
+     * @throws IllegalArgumentException  if the object or the value does not match
+     *                                   the setter signature
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    public void set(Object object, Object value)
+            throws NoSuchMethodException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        if (object == null) {
+            throw new NullPointerException("The object to set the field value for cannot be null");
+        }
+        MethodHandle handle = this.setter;
+        if (handle == null) {
+            handle = this.setter = this.resolveSetter();
+        }
+        try {
+            handle.invokeExact(object, value);
+        } catch (InvocationTargetException | Error e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Only the argument conversions can fail here, the setter exceptions are wrapped
+            throw new IllegalArgumentException("argument type mismatch for the `" + this.fieldName + "` setter", e);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Resolves the field setter now instead of on the first {@link #set} call.
+     *
+     * @return this accessor.
+     * @throws NoSuchMethodException  if the field has no setter (following the
+     *                                java naming convention)
+     * @throws IllegalAccessException if the setter is not public
+     */
+    FieldAccessor requireSetter() throws NoSuchMethodException, IllegalAccessException {
+        if (this.setter == null) {
+            this.setter = this.resolveSetter();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the field getter as a method handle of its exact type
+     * {@code (targetClass)getterReturnType}, its exceptions being thrown as is.
+     *
+     * @return the getter handle.
+     * @throws NoSuchMethodException  if the field has no getter (following the
+     *                                java naming convention)
+     * @throws IllegalAccessException if the getter is not public
+     */
+    MethodHandle getterHandle() throws NoSuchMethodException, IllegalAccessException {
+        return MethodHandles.publicLookup()
+                .unreflect(this.targetClass.getMethod(NamingStrategy.getterName(this.fieldName)));
+    }
+
+    /**
+     * Returns the field setter as a method handle of its exact type
+     * {@code (targetClass, fieldType)setterReturnType}, its exceptions being
+     * thrown as is.
+     *
+     * @return the setter handle.
+     * @throws NoSuchMethodException  if the field has no setter (following the
+     *                                java naming convention)
+     * @throws IllegalAccessException if the setter is not public
+     */
+    MethodHandle setterHandle() throws NoSuchMethodException, IllegalAccessException {
+        return MethodHandles.publicLookup()
+                .unreflect(this.targetClass.getMethod(NamingStrategy.setterName(this.fieldName), this.fieldType));
+    }
+
+    private MethodHandle resolveGetter() throws NoSuchMethodException, IllegalAccessException {
+        return wrapTargetExceptions(this.getterHandle()).asType(GETTER_TYPE);
+    }
+
+    private MethodHandle resolveSetter() throws NoSuchMethodException, IllegalAccessException {
+        return wrapTargetExceptions(this.setterHandle()).asType(SETTER_TYPE);
+    }
+
+    /*
+     * Wraps everything thrown by the accessor itself into an
+     * InvocationTargetException (as Method.invoke does) so it can be told apart
+     * from the argument conversion failures of the asType adaptation.
+     */
+    private static MethodHandle wrapTargetExceptions(MethodHandle handle) {
+        MethodType type = handle.type();
+        MethodHandle handler = MethodHandles.dropArguments(WRAP_TARGET_EXCEPTION, 1, type.parameterList());
+        handler = handler.asType(handler.type().changeReturnType(type.returnType()));
+        return MethodHandles.catchException(handle, Throwable.class, handler);
+    }
+
+    private static void wrapTargetException(Throwable e) throws InvocationTargetException {
+        throw new InvocationTargetException(e);
+    }
+}
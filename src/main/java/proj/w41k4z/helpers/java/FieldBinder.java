@@ -0,0 +1,58 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * The {@code FieldBinder} interface is implemented by the binders generated at
+ * compile time by the {@code helpers-processor} annotation processor (see
+ * {@link proj.w41k4z.helpers.annotation.GenerateBinder}): direct getter and
+ * setter calls by field name, without any reflection.
+ * <p>
+ * The binders are listed in a
+ * {@code META-INF/services/proj.w41k4z.helpers.java.FieldBinder} file and
+ * loaded when {@link JavaClass} first accesses a field. The fields a binder does
+ * not handle are accessed by reflection.
+ *
+ * @param <T> the type of the bound objects.
+ */
+public interface FieldBinder<T> {
+
+    /**
+     * The value returned by {@link #get(Object, String)} for the fields with no
+     * getter in the binder.
+     */
+    Object UNBOUND = new Object();
+
+    /**
+     * Returns the class this binder is generated for (it also binds the objects
+     * of its subclasses).
+     *
+     * @return the bound class.
+     */
+    Class<T> getType();
+
+    /**
+     * Invokes the setter of the given field on the given object.
+     *
+     * @param object the object to set the field value for.
+     * @param field  the field name.
+     * @param type   the field type, the setter parameter type.
+     * @param value  the value, already converted to the field type.
+     * @return true if the setter was invoked, false if the binder has no setter
+     *         for the field.
+     * @throws ClassCastException        if the value is not of the field type
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    boolean set(T object, String field, Class<?> type, Object value) throws InvocationTargetException;
+
+    /**
+     * Invokes the getter of the given field on the given object.
+     *
+     * @param object the object to get the field value from.
+     * @param field  the field name.
+     * @return the value returned by the getter, or {@link #UNBOUND} if the binder
+     *         has no getter for the field.
+     * @throws InvocationTargetException if the getter throws an exception
+     */
+    Object get(T object, String field) throws InvocationTargetException;
+}
@@ -0,0 +1,160 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import proj.w41k4z.helpers.TemporalMatcher;
+import proj.w41k4z.helpers.metrics.HelperMetrics;
+
+/**
+ * The {@code FieldConverter} class converts raw data to the type of a given
+ * field. All the type checks (array, temporal or normal type, supported
+ * temporal patterns) are done once when the converter is created, so converting
+ * a value only does the conversion itself, through the
+ * {@link ConverterRegistry} for the non primitive types.
+ */
+final class FieldConverter {
+
+    private static final ClassValue<ConcurrentMap<String, FieldConverter>> CONVERTERS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, FieldConverter> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Field field;
+    private final Class<?> valueClass;
+    private final boolean array;
+    private final boolean temporal;
+    private final boolean primitive;
+    private final TemporalMatcher temporalMatcher;
+
+    private FieldConverter(Field field) throws NoSuchMethodException, IllegalAccessException,
+            InvocationTargetException {
+        this.field = field;
+        this.array = field.getType().isArray();
+        this.valueClass = this.array ? field.getType().getComponentType() : field.getType();
+        this.temporal = java.util.Date.class.isAssignableFrom(this.valueClass);
+        this.temporalMatcher = this.temporal ? TemporalMatcher.of(field) : null;
+        // Primitive values and arrays of primitives (or of their wrappers) are parsed directly
+        this.primitive = this.array ? PrimitiveConverter.supports(this.valueClass) : this.valueClass.isPrimitive();
+    }
+
+    /**
+     * Returns the (cached) converter of the given field.
+     *
+     * @param field the field to convert the data for.
+     * @return the converter of the field.
+     * @throws NoSuchMethodException     if the supported temporal patterns of the
+     *                                   field cannot be retrieved.
+     * @throws IllegalAccessException    if the supported temporal patterns of the
+     *                                   field cannot be retrieved.
+     * @throws InvocationTargetException if the supported temporal patterns of the
+     *                                   field cannot be retrieved.
+     */
+    static FieldConverter of(Field field)
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        ConcurrentMap<String, FieldConverter> converters = CONVERTERS.get(field.getDeclaringClass());
+        FieldConverter converter = converters.get(field.getName());
+        HelperMetrics.recordCacheAccess("FieldConverter", converter != null);
+        if (converter == null) {
+            converter = new FieldConverter(field);
+            FieldConverter existing = converters.putIfAbsent(field.getName(), converter);
+            if (existing != null) {
+                converter = existing;
+            }
+        }
+        return converter;
+    }
+
+    /**
+     * Returns the field this converter is made for.
+     *
+     * @return the field.
+     */
+    Field getField() {
+        return this.field;
+    }
+
+    /**
+     * Converts the given data to the field type. Supports up to an array of 1
+     * dimension.
+     *
+     * @param data the data to convert.
+     * @return the converted data, or the data itself if there is no converter
+     *         to the field type.
+     * @throws IllegalArgumentException if the data cannot be converted.
+     * @see ConverterRegistry
+     */
+    Object convert(Object data) {
+        if (data == null) {
+            throw new NullPointerException("The data to set cannot be null. Field: " + this.field.getName());
+        }
+        if (data.getClass().isArray() && data.getClass().getComponentType().isArray()) {
+            throw new IllegalArgumentException("Multidimensional arrays are not supported");
+        }
+        return this.temporal ? this.convertTemporal(data) : this.convertNormal(data);
+    }
+
+    private Object convertNormal(Object data) {
+        if (this.primitive) {
+            return this.array ? PrimitiveConverter.convertArray(this.valueClass, data)
+                    : PrimitiveConverter.convertValue(this.valueClass, data);
+        }
+        if (this.array) {
+            Object[] array = (Object[]) data;
+            Object[] castedArray = (Object[]) Array.newInstance(this.valueClass, array.length);
+            Class<?> elementClass = null;
+            TypeConverter<Object, ?> converter = null;
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == null) {
+                    continue;
+                }
+                if (array[i].getClass() != elementClass) {
+                    elementClass = array[i].getClass();
+                    converter = find(elementClass, this.valueClass);
+                }
+                castedArray[i] = converter != null ? converter.convert(array[i]) : this.valueClass.cast(array[i]);
+            }
+            return castedArray;
+        }
+        TypeConverter<Object, ?> converter = find(data.getClass(), this.valueClass);
+        // Object type without converter: set as is
+        return converter != null ? converter.convert(data) : data;
+    }
+
+    private Object convertTemporal(Object data) {
+        if (!this.array && !(data instanceof CharSequence) && !(data instanceof java.util.Date)) {
+            // A java.time value (for example) is converted without being printed then parsed
+            TypeConverter<Object, ?> converter = find(data.getClass(), this.valueClass);
+            if (converter != null) {
+                return converter.convert(data);
+            }
+        }
+        if (this.array) {
+            Object[] array = (Object[]) data;
+            Object[] castedArray = (Object[]) Array.newInstance(this.valueClass, array.length);
+            for (int i = 0; i < array.length; i++) {
+                castedArray[i] = this.parseTemporal(array[i].toString().trim(), "The temporal format is not supported");
+            }
+            return castedArray;
+        }
+        return this.parseTemporal(data.toString().trim(), "The date format is not supported");
+    }
+
+    private Object parseTemporal(String value, String errorMessage) {
+        java.util.Date parsed = this.temporalMatcher.parse(this.valueClass, value);
+        if (parsed == null) {
+            throw new IllegalArgumentException(errorMessage);
+        }
+        return parsed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypeConverter<Object, ?> find(Class<?> sourceType, Class<?> targetType) {
+        return (TypeConverter<Object, ?>) ConverterRegistry.find(sourceType, targetType);
+    }
+}
@@ -0,0 +1,115 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * The {@code GeneratedBinders} class looks up the {@link FieldBinder}s
+ * generated at compile time. The binders are loaded once, on the first lookup,
+ * then the binder of a class (its own or the one of its nearest superclass) is
+ * cached through a {@code ClassValue}. A provider which cannot be loaded (a
+ * stale service file entry for example) is skipped, its class being accessed
+ * by reflection.
+ */
+final class GeneratedBinders {
+
+    private static final FieldBinder<Object> NONE = new FieldBinder<>() {
+        @Override
+        public Class<Object> getType() {
+            return Object.class;
+        }
+
+        @Override
+        public boolean set(Object object, String field, Class<?> type, Object value) {
+            return false;
+        }
+
+        @Override
+        public Object get(Object object, String field) {
+            return UNBOUND;
+        }
+    };
+
+    private static final ClassValue<FieldBinder<Object>> BINDERS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected FieldBinder<Object> computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                FieldBinder<?> binder = Loaded.BINDERS.get(current);
+                if (binder != null) {
+                    return (FieldBinder<Object>) binder;
+                }
+            }
+            return NONE;
+        }
+    };
+
+    private GeneratedBinders() {
+    }
+
+    /**
+     * Sets a field value through the generated binder of the object class.
+     *
+     * @param object the object to set the field value for.
+     * @param field  the field to set the value for.
+     * @param value  the value, already converted to the field type.
+     * @return true if the value was set, false if there is no generated setter
+     *         for the field.
+     * @throws IllegalArgumentException  if the value does not match the setter
+     *                                   signature
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    static boolean set(Object object, Field field, Object value) throws InvocationTargetException {
+        FieldBinder<Object> binder = BINDERS.get(object.getClass());
+        try {
+            return binder.set(object, field.getName(), field.getType(), value);
+        } catch (ClassCastException | NullPointerException e) {
+            // The setter exceptions are wrapped, only the value cast can fail here
+            throw new IllegalArgumentException("argument type mismatch for the `" + field.getName() + "` setter", e);
+        }
+    }
+
+    /**
+     * Gets a field value through the generated binder of the object class.
+     *
+     * @param object the object to get the field value from.
+     * @param field  the field to get the value for.
+     * @return the value returned by the getter, or {@link FieldBinder#UNBOUND} if
+     *         there is no generated getter for the field.
+     * @throws InvocationTargetException if the getter throws an exception
+     */
+    static Object get(Object object, Field field) throws InvocationTargetException {
+        return BINDERS.get(object.getClass()).get(object, field.getName());
+    }
+
+    /*
+     * The binders by class, loaded on first access (initialization-on-demand
+     * holder).
+     */
+    private static final class Loaded {
+
+        private static final Map<Class<?>, FieldBinder<?>> BINDERS = load();
+
+        @SuppressWarnings("rawtypes")
+        private static Map<Class<?>, FieldBinder<?>> load() {
+            Map<Class<?>, FieldBinder<?>> binders = new HashMap<>();
+            Iterator<FieldBinder> providers = ServiceLoader.load(FieldBinder.class).iterator();
+            while (true) {
+                try {
+                    if (!providers.hasNext()) {
+                        return binders;
+                    }
+                    FieldBinder<?> binder = providers.next();
+                    binders.put(binder.getType(), binder);
+                } catch (ServiceConfigurationError | LinkageError e) {
+                    // The iterator moves on to the next provider
+                }
+            }
+        }
+    }
+}
@@ -1,17 +1,12 @@
 package proj.w41k4z.helpers.java;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.text.ParseException;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import proj.w41k4z.helpers.DateHelper;
-import proj.w41k4z.helpers.StringHelper;
+import proj.w41k4z.helpers.metrics.HelperMetrics;
 
 /**
  * The {@code JavaClass} class is used to provide some useful methods for java
@@ -20,7 +15,8 @@ import proj.w41k4z.helpers.StringHelper;
 public class JavaClass {
 
     /**
-     * Returns all methods annotated with the given annotation class(es).
+     * Returns all methods annotated with the given annotation class(es). The
+     * returned methods are new copies the caller can modify.
      * 
      * @param javaClass         the java class.
      * @param annotationClasses the annotation class(es).
@@ -28,10 +24,29 @@ public class JavaClass {
      */
     @SafeVarargs
     public static Method[] getMethodByAnnotation(Class<?> javaClass, Class<? extends Annotation>... annotationClasses) {
-        List<Method> methods = Arrays.stream(javaClass.getMethods())
-                .filter(method -> Arrays.stream(annotationClasses).anyMatch(method::isAnnotationPresent))
-                .collect(Collectors.toList());
-        return methods.toArray(new Method[0]);
+        List<Method> annotated = getAnnotatedMethods(javaClass, annotationClasses);
+        Method[] methods = new Method[annotated.size()];
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = copy(annotated.get(i));
+        }
+        return methods;
+    }
+
+    /**
+     * Returns all methods annotated with the given annotation class(es). The
+     * lookup is done once per class and annotation set, the returned list and
+     * methods are shared: they cannot be modified and the methods must not be
+     * made accessible (use {@link #getMethodByAnnotation(Class, Class...)} for
+     * copies).
+     * 
+     * @param javaClass         the java class.
+     * @param annotationClasses the annotation class(es).
+     * @return all methods annotated with the given annotation class(es).
+     */
+    @SafeVarargs
+    public static List<Method> getAnnotatedMethods(Class<?> javaClass,
+            Class<? extends Annotation>... annotationClasses) {
+        return AnnotatedMembers.of(javaClass).getMethods(annotationClasses);
     }
 
     /**
@@ -43,15 +58,77 @@ public class JavaClass {
      */
     @SafeVarargs
     public static Field[] getFieldByAnnotation(Class<?> javaClass, Class<? extends Annotation>... annotationClasses) {
-        List<Field> fields = Arrays.stream(javaClass.getDeclaredFields())
-                .filter(field -> Arrays.stream(annotationClasses).anyMatch(field::isAnnotationPresent))
-                .collect(Collectors.toList());
-        return fields.toArray(new Field[0]);
+        return getFieldByAnnotation(javaClass, false, annotationClasses);
+    }
+
+    /**
+     * Returns all fields annotated with the given annotation class(es). The
+     * returned fields are new copies the caller can modify.
+     * 
+     * @param javaClass         the java class.
+     * @param inherited         true to include the fields declared by the
+     *                          superclasses, false for the declared fields only.
+     * @param annotationClasses the annotation class(es).
+     * @return all fields annotated with the given annotation class(es).
+     */
+    @SafeVarargs
+    public static Field[] getFieldByAnnotation(Class<?> javaClass, boolean inherited,
+            Class<? extends Annotation>... annotationClasses) {
+        List<Field> annotated = getAnnotatedFields(javaClass, inherited, annotationClasses);
+        Field[] fields = new Field[annotated.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = copy(annotated.get(i));
+        }
+        return fields;
+    }
+
+    /**
+     * Returns all fields annotated with the given annotation class(es). The
+     * lookup is done once per class and annotation set, the returned list and
+     * fields are shared: they cannot be modified and the fields must not be made
+     * accessible (use {@link #getFieldByAnnotation(Class, boolean, Class...)} for
+     * copies).
+     * 
+     * @param javaClass         the java class.
+     * @param inherited         true to include the fields declared by the
+     *                          superclasses, false for the declared fields only.
+     * @param annotationClasses the annotation class(es).
+     * @return all fields annotated with the given annotation class(es).
+     */
+    @SafeVarargs
+    public static List<Field> getAnnotatedFields(Class<?> javaClass, boolean inherited,
+            Class<? extends Annotation>... annotationClasses) {
+        return AnnotatedMembers.of(javaClass).getFields(inherited, annotationClasses);
+    }
+
+    /*
+     * A new copy of the cached method, as Class.getMethods would return.
+     */
+    private static Method copy(Method method) {
+        try {
+            return method.getDeclaringClass().getDeclaredMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * A new copy of the cached field, as Class.getDeclaredFields would return.
+     */
+    private static Field copy(Field field) {
+        try {
+            return field.getDeclaringClass().getDeclaredField(field.getName());
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
      * Sets a field value for the given target object using its setter. Supports up
-     * to an array of 1 dimension.
+     * to an array of 1 dimension. The primitive fields and the arrays of
+     * primitives are parsed directly from strings, numbers or source arrays. The
+     * setter is called through the {@link FieldBinder} generated for the class if
+     * any, by reflection otherwise.
      * 
      * @param object the object to set the field value from.
      * @param data   the parameter value for the field setter.
@@ -67,27 +144,18 @@ public class JavaClass {
     public static void setObjectFieldValue(Object object, Object data, Field field)
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException, IllegalArgumentException,
             InstantiationException {
-        if (data == null) {
-            throw new NullPointerException("The data to set cannot be null. Field: " + field.getName());
-        }
-        if (data.getClass().isArray() && data.getClass().getComponentType().isArray()) {
-            throw new IllegalArgumentException("Multidimensional arrays are not supported");
+        long start = HelperMetrics.start();
+        Object value = FieldConverter.of(field).convert(data);
+        if (!GeneratedBinders.set(object, field, value)) {
+            FieldAccessor.of(object.getClass(), field).set(object, value);
         }
-        Class<?> fieldClass = field.getType().isArray() ? field.getType().getComponentType()
-                : field.getType();
-        Method setter = object.getClass().getMethod(StringHelper.toCamelCase("set", field.getName()),
-                field.getType());
-        // if the field is a date type
-        if (java.util.Date.class.isAssignableFrom(fieldClass)) {
-            setTemporalFieldValue(object, data, field, setter);
-        } else {
-            setNormalFieldValue(object, data, field, setter);
-        }
-
+        HelperMetrics.recordBind(object.getClass(), start);
     }
 
     /**
-     * Returns the value of the given field for the given object.
+     * Returns the value of the given field for the given object. The getter is
+     * called through the {@link FieldBinder} generated for the class if any, by
+     * reflection otherwise.
      * 
      * @param object the object to get the field value from.
      * @param field  the field to get the value for.
@@ -101,75 +169,7 @@ public class JavaClass {
      */
     public static Object getObjectFieldValue(Object object, Field field) throws NoSuchMethodException,
             IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-        Method getter = object.getClass().getMethod(StringHelper.toCamelCase("get", field.getName()));
-        return getter.invoke(object);
-    }
-
-    private static void setNormalFieldValue(Object object, Object data, Field field, Method setter)
-            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException,
-            SecurityException {
-        Object castedData = null;
-        if (field.getType().isArray()) {
-            Object[] array = (Object[]) data;
-            Object[] castedArray = (Object[]) Array.newInstance(field.getType().getComponentType(), array.length);
-            for (int i = 0; i < array.length; i++) {
-                try {
-                    // Basic type : INTEGER, STRING, BOOLEAN, DOUBLE, FLOAT, LONG, SHORT, BYTE
-                    castedArray[i] = field.getType().getComponentType().getConstructor(String.class)
-                            .newInstance(array[i].toString());
-                } catch (NoSuchMethodException e) {
-                    // This means that the data is not an array of primitive type.
-                    castedArray[i] = field.getType().getComponentType().cast(array[i]);
-                }
-            }
-            castedData = castedArray;
-        } else {
-            try {
-                // Basic type : INTEGER, STRING, BOOLEAN, DOUBLE, FLOAT, LONG, SHORT, BYTE
-                castedData = field.getType().getConstructor(String.class).newInstance(data.toString());
-            } catch (Exception e) {
-                // Object type
-                castedData = data;
-            }
-        }
-        setter.invoke(object, castedData);
-    }
-
-    private static void setTemporalFieldValue(Object object, Object data, Field field, Method setter)
-            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        Object castedData = null;
-        String[] temporalFormats = DateHelper.getSupportedPatterns(field);
-        if (field.getType().isArray()) {
-            Object[] array = (Object[]) data;
-            Object[] castedArray = (Object[]) Array.newInstance(field.getType().getComponentType(), array.length);
-            for (int i = 0; i < array.length; i++) {
-                for (int j = 0; j < temporalFormats.length; j++) {
-                    try {
-                        castedArray[i] = DateHelper.format(field.getType().getComponentType(),
-                                array[j].toString().trim(),
-                                temporalFormats[j]);
-                        break;
-                    } catch (ParseException e) {
-                        if (j == temporalFormats.length - 1) {
-                            throw new IllegalArgumentException("The temporal format is not supported");
-                        }
-                    }
-                }
-            }
-            castedData = castedArray;
-        } else {
-            for (int i = 0; i < temporalFormats.length; i++) {
-                try {
-                    castedData = DateHelper.format(field.getType().getComponentType(), data.toString().trim(),
-                            temporalFormats[i]);
-                    break;
-                } catch (ParseException e) {
-                    if (i == temporalFormats.length - 1) {
-                        throw new IllegalArgumentException("The date format is not supported");
-                    }
-                }
-            }
-        }
-        setter.invoke(object, castedData);
+        Object value = GeneratedBinders.get(object, field);
+        return value != FieldBinder.UNBOUND ? value : FieldAccessor.of(object.getClass(), field).get(object);
     }
 }
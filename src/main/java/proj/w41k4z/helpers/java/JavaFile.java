@@ -70,7 +70,57 @@ public class JavaFile {
      *                                pathToRemove parameter.
      */
     public Class<?> getClassObject(String pathToRemove) throws ClassNotFoundException {
-        String path = this.getJavaFile().getPath().replace(pathToRemove, "").replace("/", ".");
-        return Class.forName(path.substring(0, path.length() - 6));
+        return Class.forName(this.getBinaryName(pathToRemove));
+    }
+
+    /**
+     * Get the Class object from the java file of this object, using the given
+     * class loader.
+     * 
+     * @param pathToRemove the path to remove from the file path (the path to the
+     *                     src or classes folder).
+     * @param classLoader  the class loader to load the class with.
+     * @param initialize   true to run the static initializers of the class.
+     * @return the class object.
+     * @throws ClassNotFoundException if the class is not found due to the
+     *                                pathToRemove parameter.
+     */
+    public Class<?> getClassObject(String pathToRemove, ClassLoader classLoader, boolean initialize)
+            throws ClassNotFoundException {
+        return Class.forName(this.getBinaryName(pathToRemove), initialize, classLoader);
+    }
+
+    /**
+     * Returns the binary name of the class of this java file (e.g.
+     * {@code pkg.Outer$Inner}), for both {@code .java} and {@code .class} files.
+     * 
+     * @param pathToRemove the path to remove from the file path (the path to the
+     *                     src or classes folder).
+     * @return the binary name of the class.
+     */
+    public String getBinaryName(String pathToRemove) {
+        String path = this.getJavaFile().getPath().replace(pathToRemove, "");
+        return toBinaryName(path);
+    }
+
+    /**
+     * Returns the binary name of a class from its file path relative to the
+     * package root.
+     * 
+     * @param relativePath the relative path of the {@code .java} or
+     *                     {@code .class} file.
+     * @return the binary name of the class.
+     */
+    static String toBinaryName(String relativePath) {
+        int start = 0;
+        while (start < relativePath.length()
+                && (relativePath.charAt(start) == '/' || relativePath.charAt(start) == File.separatorChar)) {
+            start++;
+        }
+        int end = relativePath.lastIndexOf('.');
+        if (end < start) {
+            end = relativePath.length();
+        }
+        return relativePath.substring(start, end).replace(File.separatorChar, '.').replace('/', '.');
     }
 }
@@ -0,0 +1,458 @@
+package proj.w41k4z.helpers.java;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * The {@code PrimitiveConverter} class converts raw data to the primitive
+ * types and to the arrays of primitives (or of their wrappers). The values are
+ * parsed straight from the source array ({@code String[]},
+ * {@code CharSequence[]}, a primitive or a wrapper array), element by element,
+ * without going through a reflective constructor and without boxing the
+ * elements of a primitive array.
+ * <p>
+ * The integral conversions are exact: a fractional or out of range value throws
+ * a {@code NumberFormatException} instead of being truncated, and the floats
+ * are parsed from strings without going through a double. A char (or a single
+ * character string) converts to a number from its decimal digit and to a
+ * boolean from {@code '1'/'0'} or {@code 't'/'f'} (ignoring case), any other
+ * char being rejected. A longer string is {@code true} only if it is
+ * {@code "true"} (ignoring case), as with {@code Boolean.parseBoolean}.
+ */
+final class PrimitiveConverter {
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(int.class, Integer.class, long.class, Long.class,
+            short.class, Short.class, byte.class, Byte.class, double.class, Double.class, float.class, Float.class,
+            boolean.class, Boolean.class, char.class, Character.class);
+
+    /*
+     * The kind of the source array, resolved once per conversion.
+     */
+    private enum Source {
+        CHAR_SEQUENCES, OBJECTS, INTS, LONGS, SHORTS, BYTES, DOUBLES, FLOATS, CHARS, BOOLEANS;
+
+        boolean isNumeric() {
+            return this != CHAR_SEQUENCES && this != OBJECTS && this != CHARS && this != BOOLEANS;
+        }
+    }
+
+    private PrimitiveConverter() {
+    }
+
+    /**
+     * Checks if the given type is a primitive type or a primitive wrapper.
+     *
+     * @param type the type to check.
+     * @return true if supported, false otherwise.
+     */
+    static boolean supports(Class<?> type) {
+        return WRAPPERS.containsKey(type) || WRAPPERS.containsValue(type);
+    }
+
+    /**
+     * Converts the given data to a primitive value.
+     *
+     * @param type the primitive type.
+     * @param data the data to convert (a wrapper, a number, a character sequence
+     *             or any object parsed from its string value).
+     * @return the converted value, boxed.
+     * @throws NumberFormatException if the data is not a valid number for the
+     *                               type.
+     */
+    static Object convertValue(Class<?> type, Object data) {
+        if (data.getClass() == WRAPPERS.get(type)) {
+            return data;
+        }
+        if (type == int.class) {
+            return toInt(longOf(data));
+        } else if (type == long.class) {
+            return longOf(data);
+        } else if (type == short.class) {
+            return toShort(longOf(data));
+        } else if (type == byte.class) {
+            return toByte(longOf(data));
+        } else if (type == double.class) {
+            return doubleOf(data);
+        } else if (type == float.class) {
+            return floatOf(data);
+        } else if (type == boolean.class) {
+            return booleanOf(data);
+        }
+        return charOf(data);
+    }
+
+    /**
+     * Converts the given array to an array of the given component type. An array
+     * already of the component type is returned as is.
+     *
+     * @param componentType the primitive (or primitive wrapper) component type.
+     * @param data          the array to convert. A character sequence is also
+     *                      accepted for a {@code char[]}.
+     * @return the converted array.
+     * @throws NumberFormatException    if an element is not a valid number for
+     *                                  the component type.
+     * @throws IllegalArgumentException if the data is not an array or cannot be
+     *                                  converted to the component type.
+     * @throws NullPointerException     if an element is null while the component
+     *                                  type is primitive.
+     */
+    static Object convertArray(Class<?> componentType, Object data) {
+        if (data.getClass().getComponentType() == componentType) {
+            return data;
+        }
+        if (!data.getClass().isArray()) {
+            if (componentType == char.class && data instanceof CharSequence) {
+                return data.toString().toCharArray();
+            }
+            throw new IllegalArgumentException("The data to set is not an array. Type: " + data.getClass().getName());
+        }
+        Source source = sourceOf(data);
+        Class<?> primitive = componentType.isPrimitive() ? componentType : primitiveOf(componentType);
+        if ((primitive == boolean.class || primitive == char.class) && source.isNumeric()) {
+            throw new IllegalArgumentException(
+                    "A numeric array cannot be converted to a " + componentType.getSimpleName() + " array");
+        }
+        int length = Array.getLength(data);
+        if (componentType == int.class) {
+            int[] converted = new int[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = toInt(longAt(source, data, i));
+            }
+            return converted;
+        } else if (componentType == long.class) {
+            long[] converted = new long[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = longAt(source, data, i);
+            }
+            return converted;
+        } else if (componentType == short.class) {
+            short[] converted = new short[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = toShort(longAt(source, data, i));
+            }
+            return converted;
+        } else if (componentType == byte.class) {
+            byte[] converted = new byte[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = toByte(longAt(source, data, i));
+            }
+            return converted;
+        } else if (componentType == double.class) {
+            double[] converted = new double[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = doubleAt(source, data, i);
+            }
+            return converted;
+        } else if (componentType == float.class) {
+            float[] converted = new float[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = floatAt(source, data, i);
+            }
+            return converted;
+        } else if (componentType == boolean.class) {
+            boolean[] converted = new boolean[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = booleanAt(source, data, i);
+            }
+            return converted;
+        } else if (componentType == char.class) {
+            char[] converted = new char[length];
+            for (int i = 0; i < length; i++) {
+                converted[i] = charAt(source, data, i);
+            }
+            return converted;
+        }
+        return convertWrapperArray(componentType, primitive, source, data, length);
+    }
+
+    /*
+     * The null elements of a wrapper array stay null.
+     */
+    private static Object[] convertWrapperArray(Class<?> componentType, Class<?> primitive, Source source, Object data,
+            int length) {
+        Object[] converted = (Object[]) Array.newInstance(componentType, length);
+        boolean nullable = source == Source.CHAR_SEQUENCES || source == Source.OBJECTS;
+        for (int i = 0; i < length; i++) {
+            if (nullable && ((Object[]) data)[i] == null) {
+                continue;
+            }
+            if (primitive == int.class) {
+                converted[i] = toInt(longAt(source, data, i));
+            } else if (primitive == long.class) {
+                converted[i] = longAt(source, data, i);
+            } else if (primitive == short.class) {
+                converted[i] = toShort(longAt(source, data, i));
+            } else if (primitive == byte.class) {
+                converted[i] = toByte(longAt(source, data, i));
+            } else if (primitive == double.class) {
+                converted[i] = doubleAt(source, data, i);
+            } else if (primitive == float.class) {
+                converted[i] = floatAt(source, data, i);
+            } else if (primitive == boolean.class) {
+                converted[i] = booleanAt(source, data, i);
+            } else {
+                converted[i] = charAt(source, data, i);
+            }
+        }
+        return converted;
+    }
+
+    private static Source sourceOf(Object array) {
+        Class<?> componentType = array.getClass().getComponentType();
+        if (componentType == int.class) {
+            return Source.INTS;
+        } else if (componentType == long.class) {
+            return Source.LONGS;
+        } else if (componentType == short.class) {
+            return Source.SHORTS;
+        } else if (componentType == byte.class) {
+            return Source.BYTES;
+        } else if (componentType == double.class) {
+            return Source.DOUBLES;
+        } else if (componentType == float.class) {
+            return Source.FLOATS;
+        } else if (componentType == char.class) {
+            return Source.CHARS;
+        } else if (componentType == boolean.class) {
+            return Source.BOOLEANS;
+        }
+        return CharSequence.class.isAssignableFrom(componentType) ? Source.CHAR_SEQUENCES : Source.OBJECTS;
+    }
+
+    /**
+     * Returns the wrapper of the given primitive type.
+     *
+     * @param primitive the primitive type.
+     * @return the wrapper, null if the type is not primitive.
+     */
+    static Class<?> wrapperOf(Class<?> primitive) {
+        return WRAPPERS.get(primitive);
+    }
+
+    /**
+     * Returns the primitive type of the given wrapper.
+     *
+     * @param wrapper the primitive wrapper.
+     * @return the primitive type.
+     * @throws IllegalArgumentException if the type is not a primitive wrapper.
+     */
+    static Class<?> primitiveOf(Class<?> wrapper) {
+        for (Map.Entry<Class<?>, Class<?>> entry : WRAPPERS.entrySet()) {
+            if (entry.getValue() == wrapper) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Not a primitive wrapper: " + wrapper.getName());
+    }
+
+    private static long longAt(Source source, Object data, int index) {
+        switch (source) {
+            case INTS:
+                return ((int[]) data)[index];
+            case LONGS:
+                return ((long[]) data)[index];
+            case SHORTS:
+                return ((short[]) data)[index];
+            case BYTES:
+                return ((byte[]) data)[index];
+            case DOUBLES:
+                return exactLong(((double[]) data)[index]);
+            case FLOATS:
+                return exactLong(((float[]) data)[index]);
+            case CHARS:
+                return digit(((char[]) data)[index]);
+            case BOOLEANS:
+                throw notANumber(String.valueOf(((boolean[]) data)[index]));
+            case CHAR_SEQUENCES:
+                return parseLong((CharSequence) element(data, index));
+            default:
+                return longOf(element(data, index));
+        }
+    }
+
+    private static double doubleAt(Source source, Object data, int index) {
+        switch (source) {
+            case INTS:
+                return ((int[]) data)[index];
+            case LONGS:
+                return ((long[]) data)[index];
+            case SHORTS:
+                return ((short[]) data)[index];
+            case BYTES:
+                return ((byte[]) data)[index];
+            case DOUBLES:
+                return ((double[]) data)[index];
+            case FLOATS:
+                return ((float[]) data)[index];
+            case CHARS:
+                return digit(((char[]) data)[index]);
+            case BOOLEANS:
+                throw notANumber(String.valueOf(((boolean[]) data)[index]));
+            case CHAR_SEQUENCES:
+                return Double.parseDouble(element(data, index).toString());
+            default:
+                return doubleOf(element(data, index));
+        }
+    }
+
+    private static float floatAt(Source source, Object data, int index) {
+        switch (source) {
+            case FLOATS:
+                return ((float[]) data)[index];
+            case CHAR_SEQUENCES:
+                return Float.parseFloat(element(data, index).toString());
+            case OBJECTS:
+                return floatOf(element(data, index));
+            default:
+                return (float) doubleAt(source, data, index);
+        }
+    }
+
+    private static boolean booleanAt(Source source, Object data, int index) {
+        switch (source) {
+            case BOOLEANS:
+                return ((boolean[]) data)[index];
+            case CHARS:
+                return booleanOf(((char[]) data)[index]);
+            default:
+                return booleanOf(element(data, index));
+        }
+    }
+
+    private static char charAt(Source source, Object data, int index) {
+        return source == Source.CHARS ? ((char[]) data)[index] : charOf(element(data, index));
+    }
+
+    private static Object element(Object data, int index) {
+        Object element = ((Object[]) data)[index];
+        if (element == null) {
+            throw new NullPointerException("The array element at index " + index + " cannot be null");
+        }
+        return element;
+    }
+
+    private static long longOf(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+            try {
+                return value instanceof BigInteger ? ((BigInteger) value).longValueExact()
+                        : ((BigDecimal) value).longValueExact();
+            } catch (ArithmeticException e) {
+                throw outOfRange(value);
+            }
+        } else if (value instanceof Number) {
+            return exactLong(((Number) value).doubleValue());
+        } else if (value instanceof Character) {
+            return digit((Character) value);
+        } else if (value instanceof CharSequence) {
+            return parseLong((CharSequence) value);
+        }
+        return parseLong(value.toString());
+    }
+
+    private static double doubleOf(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Character) {
+            return digit((Character) value);
+        }
+        return Double.parseDouble(value.toString());
+    }
+
+    private static float floatOf(Object value) {
+        if (value instanceof Number || value instanceof Character) {
+            return (float) doubleOf(value);
+        }
+        // Parsed straight to a float: going through a double would round twice
+        return Float.parseFloat(value.toString());
+    }
+
+    private static boolean booleanOf(Object value) {
+        if (value instanceof Character) {
+            return booleanOf((char) (Character) value);
+        }
+        if (value instanceof CharSequence && ((CharSequence) value).length() == 1) {
+            return booleanOf(((CharSequence) value).charAt(0));
+        }
+        // Same as the Boolean string constructor: only "true" (ignoring case) is true
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+    }
+
+    private static boolean booleanOf(char value) {
+        switch (value) {
+            case '1':
+            case 't':
+            case 'T':
+                return true;
+            case '0':
+            case 'f':
+            case 'F':
+                return false;
+            default:
+                throw new IllegalArgumentException("Cannot convert \"" + value + "\" to a boolean");
+        }
+    }
+
+    private static char charOf(Object value) {
+        if (value instanceof Character) {
+            return (Character) value;
+        }
+        CharSequence chars = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        if (chars.length() != 1) {
+            throw new IllegalArgumentException("Cannot convert \"" + chars + "\" to a char");
+        }
+        return chars.charAt(0);
+    }
+
+    private static long parseLong(CharSequence value) {
+        return Long.parseLong(value, 0, value.length(), 10);
+    }
+
+    private static long digit(char value) {
+        int digit = Character.digit(value, 10);
+        if (digit < 0) {
+            throw notANumber(String.valueOf(value));
+        }
+        return digit;
+    }
+
+    private static long exactLong(double value) {
+        long exact = (long) value;
+        if (exact != value) {
+            throw outOfRange(value);
+        }
+        return exact;
+    }
+
+    private static int toInt(long value) {
+        if ((int) value != value) {
+            throw outOfRange(value);
+        }
+        return (int) value;
+    }
+
+    private static short toShort(long value) {
+        if ((short) value != value) {
+            throw outOfRange(value);
+        }
+        return (short) value;
+    }
+
+    private static byte toByte(long value) {
+        if ((byte) value != value) {
+            throw outOfRange(value);
+        }
+        return (byte) value;
+    }
+
+    private static NumberFormatException notANumber(String value) {
+        return new NumberFormatException("For input string: \"" + value + "\"");
+    }
+
+    private static NumberFormatException outOfRange(Object value) {
+        return new NumberFormatException("Value out of range. Value:\"" + value + "\"");
+    }
+}
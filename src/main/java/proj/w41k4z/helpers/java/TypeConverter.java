@@ -0,0 +1,23 @@
+package proj.w41k4z.helpers.java;
+
+/**
+ * The {@code TypeConverter} interface converts a value of a source type to a
+ * target type. A converter must not use exceptions for its normal flow: an
+ * exception means the value cannot be converted.
+ *
+ * @param <S> the source type.
+ * @param <T> the target type.
+ * @see ConverterRegistry
+ */
+@FunctionalInterface
+public interface TypeConverter<S, T> {
+
+    /**
+     * Converts the given value.
+     *
+     * @param value the value to convert, never null.
+     * @return the converted value.
+     * @throws IllegalArgumentException if the value cannot be converted.
+     */
+    T convert(S value);
+}
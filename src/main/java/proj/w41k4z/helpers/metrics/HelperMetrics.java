@@ -0,0 +1,317 @@
+package proj.w41k4z.helpers.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The {@code HelperMetrics} class records what the helpers spend their time on:
+ * the bindings by class ({@code JavaClass}, {@code Binder}), the temporal parse
+ * attempts and misses by pattern, the hit ratios of the helper caches and the
+ * count and duration of the {@code FileHelper} tree operations.
+ * <p>
+ * The metrics are disabled by default (enable them with
+ * {@link #setEnabled(boolean)} or the {@value #ENABLED_PROPERTY} system
+ * property); a disabled measure only costs a volatile read. The counters are
+ * lock-free and can be read through JMX ({@link #registerMBean()}) or followed
+ * with a {@link MetricsListener}.
+ */
+public final class HelperMetrics {
+
+    /**
+     * The system property enabling the metrics at startup.
+     */
+    public static final String ENABLED_PROPERTY = "proj.w41k4z.helpers.metrics";
+
+    /**
+     * The JMX object name of the metrics MBean.
+     */
+    public static final String OBJECT_NAME = "proj.w41k4z.helpers:type=HelperMetrics";
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final List<MetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final ConcurrentMap<String, LatencyHistogram> BINDS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Counters> PARSES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Counters> CACHES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LatencyHistogram> FILE_OPERATIONS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LongAdder> FILE_ENTRIES = new ConcurrentHashMap<>();
+
+    private HelperMetrics() {
+    }
+
+    /**
+     * Checks if the metrics are recorded.
+     *
+     * @return true if enabled, false otherwise.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the metrics recording.
+     *
+     * @param enabled true to enable, false to disable.
+     */
+    public static void setEnabled(boolean enabled) {
+        HelperMetrics.enabled = enabled;
+    }
+
+    /**
+     * Returns the start time of a measured operation.
+     *
+     * @return the current {@code System.nanoTime()}, or 0 if the metrics are
+     *         disabled (the operation is then not recorded).
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a binding to an object of the given class.
+     *
+     * @param type  the class of the bound object.
+     * @param start the value returned by {@link #start()}.
+     */
+    public static void recordBind(Class<?> type, long start) {
+        if (start == 0L) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        BINDS.computeIfAbsent(type.getName(), key -> new LatencyHistogram()).record(nanos);
+        for (MetricsListener listener : LISTENERS) {
+            listener.onBind(type, nanos);
+        }
+    }
+
+    /**
+     * Records a parse attempt of a temporal value against a pattern.
+     *
+     * @param pattern the temporal pattern.
+     * @param matched true if the value has been parsed with the pattern.
+     */
+    public static void recordParse(String pattern, boolean matched) {
+        if (!enabled) {
+            return;
+        }
+        Counters counters = PARSES.computeIfAbsent(pattern, key -> new Counters());
+        counters.total.increment();
+        if (!matched) {
+            counters.subset.increment();
+        }
+        for (MetricsListener listener : LISTENERS) {
+            listener.onParse(pattern, matched);
+        }
+    }
+
+    /**
+     * Records a lookup in a helper cache.
+     *
+     * @param cache the cache name.
+     * @param hit   true if the value was cached.
+     */
+    public static void recordCacheAccess(String cache, boolean hit) {
+        if (!enabled) {
+            return;
+        }
+        Counters counters = CACHES.computeIfAbsent(cache, key -> new Counters());
+        counters.total.increment();
+        if (hit) {
+            counters.subset.increment();
+        }
+        for (MetricsListener listener : LISTENERS) {
+            listener.onCacheAccess(cache, hit);
+        }
+    }
+
+    /**
+     * Records a file operation.
+     *
+     * @param operation the operation name.
+     * @param start     the value returned by {@link #start()}.
+     * @param entries   the number of files (or bytes for the copies) handled.
+     */
+    public static void recordFileOperation(String operation, long start, long entries) {
+        if (start == 0L) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        FILE_OPERATIONS.computeIfAbsent(operation, key -> new LatencyHistogram()).record(nanos);
+        FILE_ENTRIES.computeIfAbsent(operation, key -> new LongAdder()).add(entries);
+        for (MetricsListener listener : LISTENERS) {
+            listener.onFileOperation(operation, nanos, entries);
+        }
+    }
+
+    /**
+     * Adds a listener notified of each recorded operation.
+     *
+     * @param listener the listener.
+     */
+    public static void addListener(MetricsListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener.
+     */
+    public static void removeListener(MetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Returns the binding durations by bound class name.
+     *
+     * @return the live histograms.
+     */
+    public static Map<String, LatencyHistogram> getBindHistograms() {
+        return Collections.unmodifiableMap(BINDS);
+    }
+
+    /**
+     * Returns the durations of the file operations by operation name.
+     *
+     * @return the live histograms.
+     */
+    public static Map<String, LatencyHistogram> getFileOperationHistograms() {
+        return Collections.unmodifiableMap(FILE_OPERATIONS);
+    }
+
+    /**
+     * Clears all the recorded metrics.
+     */
+    public static void reset() {
+        BINDS.clear();
+        PARSES.clear();
+        CACHES.clear();
+        FILE_OPERATIONS.clear();
+        FILE_ENTRIES.clear();
+    }
+
+    /**
+     * Returns the JMX view of the metrics.
+     *
+     * @return the MXBean.
+     */
+    public static HelperMetricsMXBean getMXBean() {
+        return MXBean.INSTANCE;
+    }
+
+    /**
+     * Registers the metrics MXBean in the platform MBean server under
+     * {@value #OBJECT_NAME}, if not already registered.
+     *
+     * @throws JMException if the MXBean cannot be registered.
+     */
+    public static synchronized void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(MXBean.INSTANCE, name);
+        }
+    }
+
+    private static <V> Map<String, Long> toLongs(Map<String, V> values, ToLongFunction<V> mapper) {
+        Map<String, Long> result = new TreeMap<>();
+        values.forEach((key, value) -> result.put(key, mapper.applyAsLong(value)));
+        return result;
+    }
+
+    private static <V> Map<String, Double> toDoubles(Map<String, V> values, ToDoubleFunction<V> mapper) {
+        Map<String, Double> result = new TreeMap<>();
+        values.forEach((key, value) -> result.put(key, mapper.applyAsDouble(value)));
+        return result;
+    }
+
+    /*
+     * A total and a subset of it: the hits of a cache or the misses of a pattern.
+     */
+    private static final class Counters {
+
+        private final LongAdder total = new LongAdder();
+        private final LongAdder subset = new LongAdder();
+    }
+
+    private static final class MXBean implements HelperMetricsMXBean {
+
+        private static final MXBean INSTANCE = new MXBean();
+
+        @Override
+        public boolean isEnabled() {
+            return HelperMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            HelperMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public Map<String, Long> getBindCounts() {
+            return toLongs(BINDS, LatencyHistogram::getCount);
+        }
+
+        @Override
+        public Map<String, Double> getBindMeanNanos() {
+            return toDoubles(BINDS, LatencyHistogram::getMeanNanos);
+        }
+
+        @Override
+        public Map<String, Long> getBindP99Nanos() {
+            return toLongs(BINDS, histogram -> histogram.getPercentileNanos(99));
+        }
+
+        @Override
+        public Map<String, Long> getParseAttempts() {
+            return toLongs(PARSES, counters -> counters.total.sum());
+        }
+
+        @Override
+        public Map<String, Long> getParseMisses() {
+            return toLongs(PARSES, counters -> counters.subset.sum());
+        }
+
+        @Override
+        public Map<String, Double> getCacheHitRatios() {
+            return toDoubles(CACHES, counters -> {
+                long total = counters.total.sum();
+                return total == 0 ? 0 : (double) counters.subset.sum() / total;
+            });
+        }
+
+        @Override
+        public Map<String, Long> getFileOperationCounts() {
+            return toLongs(FILE_OPERATIONS, LatencyHistogram::getCount);
+        }
+
+        @Override
+        public Map<String, Double> getFileOperationMeanNanos() {
+            return toDoubles(FILE_OPERATIONS, LatencyHistogram::getMeanNanos);
+        }
+
+        @Override
+        public Map<String, Long> getFileOperationEntries() {
+            return toLongs(FILE_ENTRIES, LongAdder::sum);
+        }
+
+        @Override
+        public void reset() {
+            HelperMetrics.reset();
+        }
+    }
+}
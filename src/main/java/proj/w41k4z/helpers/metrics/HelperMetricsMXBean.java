@@ -0,0 +1,92 @@
+package proj.w41k4z.helpers.metrics;
+
+import java.util.Map;
+
+/**
+ * The {@code HelperMetricsMXBean} interface is the JMX view of the
+ * {@link HelperMetrics}.
+ */
+public interface HelperMetricsMXBean {
+
+    /**
+     * Checks if the metrics are recorded.
+     *
+     * @return true if enabled, false otherwise.
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables the metrics recording.
+     *
+     * @param enabled true to enable, false to disable.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the number of bindings by bound class.
+     *
+     * @return the counts by class name.
+     */
+    Map<String, Long> getBindCounts();
+
+    /**
+     * Returns the mean binding duration by bound class.
+     *
+     * @return the mean durations in nanoseconds by class name.
+     */
+    Map<String, Double> getBindMeanNanos();
+
+    /**
+     * Returns the 99th percentile of the binding duration by bound class.
+     *
+     * @return the approximated durations in nanoseconds by class name.
+     */
+    Map<String, Long> getBindP99Nanos();
+
+    /**
+     * Returns the number of parse attempts by temporal pattern.
+     *
+     * @return the counts by pattern.
+     */
+    Map<String, Long> getParseAttempts();
+
+    /**
+     * Returns the number of failed parse attempts by temporal pattern.
+     *
+     * @return the counts by pattern.
+     */
+    Map<String, Long> getParseMisses();
+
+    /**
+     * Returns the hit ratio by helper cache.
+     *
+     * @return the ratios (between 0 and 1) by cache name.
+     */
+    Map<String, Double> getCacheHitRatios();
+
+    /**
+     * Returns the number of file operations by operation.
+     *
+     * @return the counts by operation name.
+     */
+    Map<String, Long> getFileOperationCounts();
+
+    /**
+     * Returns the mean duration of the file operations by operation.
+     *
+     * @return the mean durations in nanoseconds by operation name.
+     */
+    Map<String, Double> getFileOperationMeanNanos();
+
+    /**
+     * Returns the number of files (or bytes) handled by operation.
+     *
+     * @return the counts by operation name.
+     */
+    Map<String, Long> getFileOperationEntries();
+
+    /**
+     * Clears all the recorded metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,108 @@
+package proj.w41k4z.helpers.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code LatencyHistogram} class is a lock-free histogram of durations in
+ * nanoseconds. The durations are counted in power of two buckets, so the
+ * percentiles are approximated to the upper bound of their bucket.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long duration = Math.max(nanos, 0);
+        // bucket i holds the durations of i bits: [2^(i-1), 2^i - 1]
+        this.buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(duration));
+        this.count.increment();
+        this.total.add(duration);
+        this.max.accumulate(duration);
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded durations.
+     *
+     * @return the total duration in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return this.total.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded durations.
+     *
+     * @return the mean duration in nanoseconds, 0 if nothing is recorded.
+     */
+    public double getMeanNanos() {
+        long recorded = this.count.sum();
+        return recorded == 0 ? 0 : (double) this.total.sum() / recorded;
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     *
+     * @return the maximum duration in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return this.max.get();
+    }
+
+    /**
+     * Returns an approximation of a percentile of the recorded durations.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the upper bound of the bucket holding the percentile, in
+     *         nanoseconds.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.buckets.get(i);
+            recorded += snapshot[i];
+        }
+        long rank = (long) Math.ceil(recorded * Math.min(Math.max(percentile, 0), 100) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return i == 0 ? 0 : Math.min((1L << i) - 1, this.max.get());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Clears the recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets.set(i, 0);
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+}
@@ -0,0 +1,49 @@
+package proj.w41k4z.helpers.metrics;
+
+/**
+ * The {@code MetricsListener} interface is notified of each measured helper
+ * operation while the metrics are enabled. The notifications are made on the
+ * thread doing the operation, so implementations have to be fast and
+ * thread-safe.
+ *
+ * @see HelperMetrics#addListener(MetricsListener)
+ */
+public interface MetricsListener {
+
+    /**
+     * Called when a value (or a row) has been bound to an object.
+     *
+     * @param type  the class of the bound object.
+     * @param nanos the binding duration in nanoseconds.
+     */
+    default void onBind(Class<?> type, long nanos) {
+    }
+
+    /**
+     * Called when a temporal value has been tried against a pattern.
+     *
+     * @param pattern the temporal pattern.
+     * @param matched true if the value has been parsed with the pattern.
+     */
+    default void onParse(String pattern, boolean matched) {
+    }
+
+    /**
+     * Called when a helper cache has been looked up.
+     *
+     * @param cache the cache name.
+     * @param hit   true if the value was cached.
+     */
+    default void onCacheAccess(String cache, boolean hit) {
+    }
+
+    /**
+     * Called when a file operation is over.
+     *
+     * @param operation the operation name.
+     * @param nanos     the operation duration in nanoseconds.
+     * @param entries   the number of files (or bytes for the copies) handled.
+     */
+    default void onFileOperation(String operation, long nanos, long entries) {
+    }
+}